@@ -1,9 +1,9 @@
 #version 330 core
 
-uniform vec4 uColor;
+in vec4 fColor;
 out vec4 color;
 
 void main()
 {
-    color = uColor;
+    color = fColor;
 }
@@ -4,6 +4,7 @@ in vec4 fColor;
 in vec2 fTexCoords;
 in float fTexID;
 in float fRoundness;
+in vec2 fLocalCoords;
 
 uniform sampler2D uTextures[8];
 
@@ -55,7 +56,8 @@ void main()
 
     // ---- Rounded rectangle / circle ----
     float r = clamp(fRoundness, 0.0, 0.5);
-    vec2 uvCentered = fTexCoords - vec2(0.5);
+    // fLocalCoords = tex coords spritu před převodem do atlasu
+    vec2 uvCentered = fLocalCoords - vec2(0.5);
     float alpha = 1.0;
 
     if (r > 0.0) {
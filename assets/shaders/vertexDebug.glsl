@@ -1,11 +1,19 @@
 #version 330 core
 
-layout(location = 0) in vec3 aPos;
+layout(location = 0) in vec2 aPos;
+layout(location = 1) in vec4 aColor;
 
-uniform mat4 uProjection;
-uniform mat4 uView;
+// kamera sdílená všemi shadery (CameraUniforms, binding 0), nahrává se jednou za snímek
+layout(std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+    mat4 uViewProjection;
+};
+
+out vec4 fColor;
 
 void main()
 {
-    gl_Position = uProjection * uView * vec4(aPos, 1.0);
+    fColor = aColor;
+    gl_Position = uViewProjection * vec4(aPos, 0.0, 1.0);
 }
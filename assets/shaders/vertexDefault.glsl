@@ -5,14 +5,20 @@ layout(location = 1) in vec4 aColor;
 layout(location = 2) in vec2 aTexCoords;
 layout(location = 3) in float aTexID;
 layout(location = 4) in float aRoundness;
+layout(location = 5) in vec2 aLocalCoords;
 
-uniform mat4 uProjection;
-uniform mat4 uView;
+// kamera sdílená všemi shadery (CameraUniforms, binding 0), nahrává se jednou za snímek
+layout(std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+    mat4 uViewProjection;
+};
 
 out vec4 fColor;
 out vec2 fTexCoords;
 out float fTexID;
 out float fRoundness;
+out vec2 fLocalCoords;
 
 void main()
 {
@@ -20,5 +26,6 @@ void main()
     fTexCoords = aTexCoords;
     fTexID = aTexID;
     fRoundness = aRoundness;
-    gl_Position = uProjection * uView * vec4(aPos, 1.0);
+    fLocalCoords = aLocalCoords;
+    gl_Position = uViewProjection * vec4(aPos, 1.0);
 }
@@ -0,0 +1,45 @@
+#version 330 core
+
+// rohy jednotkového quadu (-0.5..0.5), sdílené všemi instancemi
+layout(location = 0) in vec2 aCorner;
+
+// data instance (InstanceData)
+layout(location = 1) in vec2 iPosition;
+layout(location = 2) in vec2 iScale;
+layout(location = 3) in float iRotation;
+layout(location = 4) in vec4 iColor;
+layout(location = 5) in vec4 iUvRect;
+layout(location = 6) in vec4 iLocalRect;
+layout(location = 7) in float iTexID;
+layout(location = 8) in float iRoundness;
+
+// kamera sdílená všemi shadery (CameraUniforms, binding 0), nahrává se jednou za snímek
+layout(std140) uniform Camera {
+    mat4 uProjection;
+    mat4 uView;
+    mat4 uViewProjection;
+};
+
+out vec4 fColor;
+out vec2 fTexCoords;
+out float fTexID;
+out float fRoundness;
+out vec2 fLocalCoords;
+
+void main()
+{
+    vec2 local = aCorner * iScale;
+    float c = cos(iRotation);
+    float s = sin(iRotation);
+    vec2 world = vec2(local.x * c - local.y * s, local.x * s + local.y * c) + iPosition;
+
+    // roh 0 -> t = (0,0), roh 2 -> t = (1,1)
+    vec2 t = aCorner + vec2(0.5);
+
+    fColor = iColor;
+    fTexCoords = mix(iUvRect.xy, iUvRect.zw, t);
+    fTexID = iTexID;
+    fRoundness = iRoundness;
+    fLocalCoords = mix(iLocalRect.xy, iLocalRect.zw, t);
+    gl_Position = uViewProjection * vec4(world, 0.0, 1.0);
+}
@@ -0,0 +1,101 @@
+package render;
+
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teselace 10k ladicích kruhů a kapslí za snímek do DebugDraw: 'cached' jsou současné
+ * addCircle/addCapsule (sdílený jednotkový kruh, jeden sin/cos na tvar), 'trig' je původní
+ * postup s Math.cos/sin pro každý bod oblouku. Obě varianty zapisují stejný počet čar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DebugShapesBenchmark {
+    private static final int SHAPES = 10_000;
+    private static final int SEGMENTS = 20;
+
+    private final DebugDraw debugDraw = new DebugDraw(SHAPES * (SEGMENTS * 2 + 2));
+    private final Vector2f[] centers = new Vector2f[SHAPES];
+    private final float[] rotations = new float[SHAPES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < SHAPES; i++) {
+            centers[i] = new Vector2f((i % 100) * 3.0f, (i / 100) * 3.0f);
+            rotations[i] = i * 0.01f;
+        }
+    }
+
+    @Benchmark
+    public int circlesCached() {
+        debugDraw.clear();
+        for (int i = 0; i < SHAPES; i++) {
+            debugDraw.addCircle(centers[i], 1.0f, DebugDraw.GREEN, SEGMENTS);
+        }
+        return debugDraw.getNumLines();
+    }
+
+    @Benchmark
+    public int circlesTrig() {
+        debugDraw.clear();
+        for (int i = 0; i < SHAPES; i++) {
+            Vector2f c = centers[i];
+            trigArc(c.x, c.y, 1.0f, 0.0f, (float) (2 * Math.PI), SEGMENTS, DebugDraw.GREEN);
+        }
+        return debugDraw.getNumLines();
+    }
+
+    @Benchmark
+    public int capsulesCached() {
+        debugDraw.clear();
+        for (int i = 0; i < SHAPES; i++) {
+            debugDraw.addCapsule(centers[i], 0.5f, 2.0f, rotations[i], DebugDraw.GREEN, SEGMENTS);
+        }
+        return debugDraw.getNumLines();
+    }
+
+    @Benchmark
+    public int capsulesTrig() {
+        debugDraw.clear();
+        for (int i = 0; i < SHAPES; i++) {
+            trigCapsule(centers[i], 0.5f, 2.0f, rotations[i], DebugDraw.GREEN, SEGMENTS);
+        }
+        return debugDraw.getNumLines();
+    }
+
+    // Původní teselace: úhel a Math.cos/sin pro každý bod oblouku
+    private void trigArc(float cx, float cy, float radius, float startAngle, float endAngle, int segments, Vector4f color) {
+        float step = (endAngle - startAngle) / segments;
+        float x1 = cx + radius * (float) Math.cos(startAngle);
+        float y1 = cy + radius * (float) Math.sin(startAngle);
+        for (int i = 1; i <= segments; i++) {
+            float a = startAngle + i * step;
+            float x2 = cx + radius * (float) Math.cos(a);
+            float y2 = cy + radius * (float) Math.sin(a);
+            debugDraw.addLine(x1, y1, x2, y2, color, 1);
+            x1 = x2;
+            y1 = y2;
+        }
+    }
+
+    private void trigCapsule(Vector2f center, float radius, float height, float rotation, Vector4f color, int segments) {
+        float halfStraight = (height / 2f) - radius;
+        float cos = (float) Math.cos(rotation);
+        float sin = (float) Math.sin(rotation);
+        float ux = -sin * halfStraight, uy = cos * halfStraight;
+        float rx = cos * radius, ry = sin * radius;
+
+        trigArc(center.x + ux, center.y + uy, radius, rotation, rotation + (float) Math.PI, segments, color);
+        trigArc(center.x - ux, center.y - uy, radius, rotation + (float) Math.PI, rotation + (float) (2 * Math.PI), segments, color);
+
+        debugDraw.addLine(center.x - rx + ux, center.y - ry + uy, center.x - rx - ux, center.y - ry - uy, color, 1);
+        debugDraw.addLine(center.x + rx + ux, center.y + ry + uy, center.x + rx - ux, center.y + ry - uy, color, 1);
+    }
+}
@@ -0,0 +1,78 @@
+package render;
+
+import components.SpriteRenderer;
+import engine.Camera;
+import engine.GameObject;
+import engine.Transform;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU čas a alokace jednoho snímku rendereru (RecordingBackend, bez GPU) se scénou, která se už
+ * nemění, a s 'moved' sprity posunutými v každém snímku. Se -prof gc má gc.alloc.rate.norm
+ * ustálené scény vyjít 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderFrameBenchmark {
+
+    @Param({"1000", "10000"})
+    public int sprites;
+
+    @Param({"0", "100"})
+    public int moved;
+
+    private Renderer renderer;
+    private SpriteRenderer[] spriteRenderers;
+    private int next = 0;
+    private float offset = 0.01f;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RecordingBackend backend = new RecordingBackend();
+        backend.setRecording(false);
+        Renderer.setBackend(backend);
+
+        renderer = new Renderer();
+        // kamera i sprity kolem počátku, culling nic neodřízne
+        renderer.setCamera(new Camera(new Vector2f(-2000, -2000)));
+        renderer.setCullingEnabled(false);
+
+        spriteRenderers = new SpriteRenderer[sprites];
+        int columns = (int) Math.ceil(Math.sqrt(sprites));
+        for (int i = 0; i < sprites; i++) {
+            Transform t = new Transform(new Vector2f((i % columns) * 10, (i / columns) * 10), new Vector2f(8, 8));
+            GameObject go = new GameObject("Sprite" + i, t, 0);
+            SpriteRenderer sprite = new SpriteRenderer(new Vector4f(1, 1, 1, 1));
+            go.addComponent(sprite);
+            sprite.start();
+            renderer.add(sprite);
+            spriteRenderers[i] = sprite;
+        }
+
+        // první snímky nahrají všechno a ustálí buffery
+        for (int i = 0; i < 3; i++) frame();
+    }
+
+    @Benchmark
+    public RenderStats frame() {
+        for (int i = 0; i < moved; i++) {
+            SpriteRenderer sprite = spriteRenderers[next];
+            next = (next + 1) % spriteRenderers.length;
+            sprite.gameObject.transform.position.x += offset;
+            sprite.setDirty();
+        }
+        offset = -offset;
+
+        Renderer.getState().beginFrame();
+        renderer.render();
+        return renderer.getStats();
+    }
+}
@@ -0,0 +1,90 @@
+package render;
+
+import components.SpriteRenderer;
+import engine.Camera;
+import engine.GameObject;
+import engine.Transform;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Přidání a odebrání 50k spritů rozložených do 'layers' z-indexů a přesun části spritů
+ * do jiné vrstvy (RenderLayer + batche s volným místem, bez řazení a hledání přes všechny batche).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteLayerBenchmark {
+    private static final int SPRITES = 50_000;
+
+    @Param({"1", "16", "256"})
+    public int layers;
+
+    private SpriteRenderer[] sprites;
+    private Renderer renderer;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RecordingBackend backend = new RecordingBackend();
+        backend.setRecording(false);
+        Renderer.setBackend(backend);
+
+        sprites = new SpriteRenderer[SPRITES];
+        for (int i = 0; i < SPRITES; i++) {
+            Transform t = new Transform(new Vector2f(i % 250, i / 250), new Vector2f(1, 1));
+            GameObject go = new GameObject("Sprite" + i, t, i % layers);
+            SpriteRenderer sprite = new SpriteRenderer(new Vector4f(1, 1, 1, 1));
+            go.addComponent(sprite);
+            sprite.start();
+            sprites[i] = sprite;
+        }
+
+        renderer = newRenderer();
+        for (SpriteRenderer sprite : sprites) renderer.add(sprite);
+        renderer.render();
+    }
+
+    private static Renderer newRenderer() {
+        Renderer renderer = new Renderer();
+        renderer.setCamera(new Camera(new Vector2f()));
+        renderer.setCullingEnabled(false);
+        return renderer;
+    }
+
+    // Prázdný renderer: vrstvy i batche se zakládají
+    @Benchmark
+    public Renderer add50k() {
+        Renderer fresh = newRenderer();
+        for (SpriteRenderer sprite : sprites) fresh.add(sprite);
+        for (SpriteRenderer sprite : sprites) fresh.remove(sprite);
+        return fresh;
+    }
+
+    // Odebrání a opětovné přidání do existujících vrstev a batchí
+    @Benchmark
+    public Renderer removeAndAdd50k() {
+        for (SpriteRenderer sprite : sprites) renderer.remove(sprite);
+        for (SpriteRenderer sprite : sprites) renderer.add(sprite);
+        return renderer;
+    }
+
+    // 500 spritů za snímek změní z-index; přesun udělá render() přes frontu rebatchů
+    @Benchmark
+    public RenderStats rezindex500() {
+        for (int i = 0; i < 500; i++) {
+            GameObject go = sprites[next].gameObject;
+            go.setZIndex((go.getZIndex() + 1) % layers);
+            next = (next + 1) % SPRITES;
+        }
+        Renderer.getState().beginFrame();
+        renderer.render();
+        return renderer.getStats();
+    }
+}
@@ -26,11 +26,11 @@ public class MultiDeleteGameObjectAction implements EditorAction {
     public void execute() {
         var view = Window.getView();
 
+        List<GameObject> toRemove = new ArrayList<>(deletedObjects.size());
         for (DeletedObject entry : deletedObjects) {
-            GameObject go = entry.gameObject;
-
-            view.removeGameObject(go);
+            toRemove.add(entry.gameObject);
         }
+        view.removeGameObjects(toRemove);
 
         if (deletedObjects.stream().anyMatch(e -> e.gameObject == view.getActiveGameObject())) {
             view.setActiveGameObject(null);
@@ -225,10 +225,12 @@ public class Animation extends Component {
             ImGui.pushID(i);
 
             Sprite sprite = sprites.get(i);
-            int texId = sprite.getTexture().getId();
+            Texture tex = sprite.getTexture();
+            int texId = tex.getId();
 
             // === IMAGE BUTTON ===
-            boolean clicked = ImGui.imageButton(texId, THUMB_SIZE, THUMB_SIZE);
+            boolean clicked = ImGui.imageButton(texId, THUMB_SIZE, THUMB_SIZE,
+                    tex.mapU(0), tex.mapV(0), tex.mapU(1), tex.mapV(1));
 
             boolean ctrl  = ImGui.getIO().getKeyCtrl();
             boolean shift = ImGui.getIO().getKeyShift();
@@ -1,15 +1,18 @@
 package components;
 
 import engine.View;
-import engine.Window;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
-import render.Renderer;
+import render.DebugDraw;
 
 public class Grid {
 
     private static final float CELL_SIZE = 0.25f;
     private static final int HALF_EXTENT = 100;
+    private static final Vector4f COLOR = new Vector4f(0.3f, 0.3f, 0.3f, 0.5f);
+
+    // Grid se kreslí pod sprity, proto má vlastní dávku čar (jeden draw call)
+    private static final DebugDraw lines = new DebugDraw(2 * (2 * HALF_EXTENT + 1));
 
     public static void render(View view) {
         Vector2f camPos = view.camera().position;
@@ -19,24 +22,24 @@ public class Grid {
         float startX = (float)Math.floor(camPos.x / CELL_SIZE) * CELL_SIZE;
         float startY = (float)Math.floor(camPos.y / CELL_SIZE) * CELL_SIZE;
 
-        Renderer.beginLines(new Vector4f(0.3f, 0.3f, 0.3f, 0.5f));
-
         for (int i = -HALF_EXTENT; i <= HALF_EXTENT; i++) {
             float x = startX + i * CELL_SIZE;
-            Renderer.drawLine(
+            lines.addLine(
                     x, startY - HALF_EXTENT * CELL_SIZE,
-                    x, startY + HALF_EXTENT * CELL_SIZE
+                    x, startY + HALF_EXTENT * CELL_SIZE,
+                    COLOR
             );
         }
 
         for (int i = -HALF_EXTENT; i <= HALF_EXTENT; i++) {
             float y = startY + i * CELL_SIZE;
-            Renderer.drawLine(
+            lines.addLine(
                     startX - HALF_EXTENT * CELL_SIZE, y,
-                    startX + HALF_EXTENT * CELL_SIZE, y
+                    startX + HALF_EXTENT * CELL_SIZE, y,
+                    COLOR
             );
         }
 
-        Renderer.endLines();
+        lines.render(view.camera());
     }
 }
@@ -9,6 +9,7 @@ import imgui.ImGui;
 import imgui.type.ImBoolean;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
+import render.SpriteBatch;
 import render.Texture;
 import util.AssetPool;
 
@@ -31,6 +32,10 @@ public class SpriteRenderer extends Component {
 
     private Vector2f[] customVertices = null;
 
+    // Slot v render batchi, nastavuje SpriteBatch při přidání/odebrání
+    private SpriteBatch batch = null;
+    private int batchIndex = -1;
+
     public SpriteRenderer(Vector4f color) {
         this.color = color;
         this.sprite = new Sprite(null);
@@ -65,12 +70,9 @@ public class SpriteRenderer extends Component {
         return sprite.getTexture();
     }
 
+    // Vrací přímo pole spritu (bez kopie) – volá se pro každý špinavý sprite při sestavování vertexů
     public Vector2f[] getTexCoords() {
-        Vector2f[] coords = new Vector2f[sprite.getTexCoords().length];
-        for (int i = 0; i < coords.length; i++) {
-            coords[i] = new Vector2f(sprite.getTexCoords()[i]);
-        }
-        return coords;
+        return sprite.getTexCoords();
     }
 
 
@@ -112,6 +114,19 @@ public class SpriteRenderer extends Component {
         }
     }
 
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+
+    public int getBatchIndex() {
+        return batchIndex;
+    }
+
+    public void setBatchSlot(SpriteBatch batch, int batchIndex) {
+        this.batch = batch;
+        this.batchIndex = batchIndex;
+    }
+
     public boolean isDirty() {
         return isDirty;
     }
@@ -129,7 +144,7 @@ public class SpriteRenderer extends Component {
         Texture tex = this.getTexture();
         if (tex != null) {
             int texId = tex.getId();
-            ImGui.image(texId, 100,100);
+            ImGui.image(texId, 100,100, tex.mapU(0), tex.mapV(0), tex.mapU(1), tex.mapV(1));
         }
         if (!isColorOnly) {
             if (ImGuiUtils.redButton("Remove sprite")) {
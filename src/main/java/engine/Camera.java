@@ -2,17 +2,25 @@ package engine;
 
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
-import org.joml.Vector3f;
 
 public class Camera {
 
     private Matrix4f projectionMatrix, viewMatrix, inverseProjection, inverseView;
+    private final Matrix4f viewProjection = new Matrix4f();
 
 
     private float zoom = 2.0f;
     public Vector2f position;
     private Vector2f projectionSize = new Vector2f(6,3);
 
+    // Hodnoty, ze kterých jsou spočítané matice; position se mění zvenku přímo, proto se porovnává
+    private final Vector2f lastPosition = new Vector2f(Float.NaN, Float.NaN);
+    private final Vector2f lastProjectionSize = new Vector2f();
+    private float lastZoom;
+    private boolean projectionDirty = true;
+    // Zvyšuje se při každém přepočtu matic (podle toho se pozná, zda je třeba je znovu nahrát)
+    private int matrixVersion = 0;
+
     public Camera(Vector2f position) {
         this.position = position;
         this.projectionMatrix = new Matrix4f();
@@ -23,37 +31,73 @@ public class Camera {
     }
 
     public void adjustProjection() {
-        projectionMatrix.identity();
-        projectionMatrix.ortho(0.0f, projectionSize.x * this.zoom,
-                0.0f, projectionSize.y * zoom, 0.0f, 100.0f);
-        projectionMatrix.invert(inverseProjection);
+        projectionDirty = true;
+        update();
     }
 
-    public Matrix4f getViewMatrix() {
-        Vector3f cameraFront = new Vector3f(0.0f, 0.0f, -1.0f);
-        Vector3f cameraUp = new Vector3f(0.0f, 1.0f, 0.0f);
-        this.viewMatrix.identity();
-        viewMatrix.lookAt(new Vector3f(position.x, position.y, 20.0f),
-                cameraFront.add(position.x, position.y, 0.0f),
-                cameraUp);
-        this.viewMatrix.invert(inverseView);
+    // Přepočítá jen matice, jejichž vstupy se od minula změnily
+    private void update() {
+        boolean changed = false;
+
+        if (projectionDirty || zoom != lastZoom || !projectionSize.equals(lastProjectionSize)) {
+            projectionMatrix.identity();
+            projectionMatrix.ortho(0.0f, projectionSize.x * this.zoom,
+                    0.0f, projectionSize.y * zoom, 0.0f, 100.0f);
+            projectionMatrix.invert(inverseProjection);
+            lastZoom = zoom;
+            lastProjectionSize.set(projectionSize);
+            projectionDirty = false;
+            changed = true;
+        }
+
+        if (!position.equals(lastPosition)) {
+            // kamera kouká z výšky 20 podél -z, nahoru je +y
+            viewMatrix.setLookAt(position.x, position.y, 20.0f,
+                    position.x, position.y, -1.0f,
+                    0.0f, 1.0f, 0.0f);
+            viewMatrix.invert(inverseView);
+            lastPosition.set(position);
+            changed = true;
+        }
+
+        if (changed) {
+            projectionMatrix.mul(viewMatrix, viewProjection);
+            matrixVersion++;
+        }
+    }
 
+    public Matrix4f getViewMatrix() {
+        update();
         return this.viewMatrix;
     }
 
 
     public Matrix4f getProjectionMatrix() {
+        update();
         return this.projectionMatrix;
     }
 
+    // Projekce * view, stejná pro všechny batche snímku
+    public Matrix4f getViewProjectionMatrix() {
+        update();
+        return this.viewProjection;
+    }
+
     public Matrix4f getInverseProjection() {
+        update();
         return this.inverseProjection;
     }
 
     public Matrix4f getInverseView() {
+        update();
         return this.inverseView;
     }
 
+    public int getMatrixVersion() {
+        update();
+        return matrixVersion;
+    }
+
     public Vector2f getProjectionSize() {
         return this.projectionSize;
     }
@@ -16,8 +16,10 @@ import physics2d.components.CapsuleCollider;
 import physics2d.components.CircleCollider;
 import physics2d.components.RigidBody2D;
 import project.ProjectManager;
+import render.DebugDraw;
 import render.Renderer;
 import render.Texture;
+import render.TextureAtlas;
 import util.AssetPool;
 import util.IdGenerator;
 
@@ -37,6 +39,8 @@ public class EditorView extends View {
     private Vector2f dragOffset = new Vector2f();
     public boolean showHitboxes = true;
 
+    private static final Vector4f SELECTION_COLOR = new Vector4f(0, 0.7f, 1, 1); // modrý
+
     private boolean selectionDragging = false;
     private Vector2f selectionStart = new Vector2f();
     private Vector2f selectionEnd = new Vector2f();
@@ -118,6 +122,8 @@ public class EditorView extends View {
 
         selectionHandles();
 
+        // hitboxy, collidery a výběr nasbírané během update jedním draw callem
+        Renderer.getDebugDraw().render(camera);
     }
 
     public GameObject getObjectById(long id) {
@@ -673,12 +679,7 @@ public class EditorView extends View {
                     Math.max(selectionStart.y, selectionEnd.y)
             );
 
-            Renderer.beginLines(new Vector4f(0, 0.7f, 1, 1)); // modrý
-            Renderer.drawLine(min.x, min.y, max.x, min.y);
-            Renderer.drawLine(max.x, min.y, max.x, max.y);
-            Renderer.drawLine(max.x, max.y, min.x, max.y);
-            Renderer.drawLine(min.x, max.y, min.x, min.y);
-            Renderer.endLines();
+            Renderer.getDebugDraw().addRect(min.x, min.y, max.x, max.y, SELECTION_COLOR);
         }
     }
 
@@ -695,9 +696,7 @@ public class EditorView extends View {
     }
 
     private void renderHitboxes() {
-        glDisable(GL_TEXTURE_2D);
-        glLineWidth(1.5f);
-
+        DebugDraw debugDraw = Renderer.getDebugDraw();
         for (GameObject go : gameObjects) {
             if (activeGameObject == go || (activeGroup != null && activeGroup.contains(go)) || RightSidebar.selectedObjects.contains(go)) {
                 Transform t = go.transform;
@@ -711,20 +710,12 @@ public class EditorView extends View {
                     List<Vector2f> pts = sr.getWorldPoints();
                     if (pts.size() < 2) continue;
 
-                    Renderer.beginLines(new Vector4f(0f, 1f, 0f, 1f));
-
                     for (int i = 0; i < pts.size(); i++) {
-                        Vector2f a = pts.get(i);
-                        Vector2f b = pts.get((i + 1) % pts.size());
-                        Renderer.drawLine(a.x, a.y, b.x, b.y);
+                        debugDraw.addLine(pts.get(i), pts.get((i + 1) % pts.size()), DebugDraw.GREEN);
                     }
-
-                    Renderer.endLines();
                 }
             }
         }
-
-        glEnable(GL_TEXTURE_2D);
     }
 
     private void drawRotatedRect(Vector2f pos, Vector2f size, float rotation) {
@@ -748,15 +739,7 @@ public class EditorView extends View {
             world[i] = new Vector2f(cx + rx, cy + ry);
         }
 
-        Renderer.beginLines(new Vector4f(0, 1, 0, 1));
-
-        for (int i = 0; i < 4; i++) {
-            Vector2f a = world[i];
-            Vector2f b = world[(i + 1) % 4];
-            Renderer.drawLine(a.x, a.y, b.x, b.y);
-        }
-
-        Renderer.endLines();
+        Renderer.getDebugDraw().addPolygon(world, 4, DebugDraw.GREEN);
     }
 
 
@@ -768,6 +751,22 @@ public class EditorView extends View {
         if (ImGui.treeNodeEx("Engine Info", ImGuiTreeNodeFlags.DefaultOpen)) {
             ImGui.text("FPS: " + (int) (1f / dt));
             ImGui.text("Frame Time: " + (dt * 1000) + " ms");
+            ImGui.text("Uploaded: " + renderer.getStats().getBytesUploaded() / 1024 + " KB ("
+                    + renderer.getStats().getUploadCalls() + " calls)");
+            ImGui.text("Sprites: " + renderer.getStats().getVisibleSprites() + " visible, "
+                    + renderer.getStats().getCulledSprites() + " culled");
+            ImGui.text("Batches: " + renderer.getStats().getDrawnBatches() + " drawn, "
+                    + renderer.getStats().getSkippedBatches() + " skipped");
+            ImGui.text("State changes: " + Renderer.getState().getStateChanges() + " ("
+                    + Renderer.getState().getStateChangesSkipped() + " skipped)");
+            TextureAtlas atlas = AssetPool.getAtlas();
+            if (atlas != null) {
+                ImGui.text("Atlas: " + atlas.getRegionCount() + " images, " + atlas.getPageCount() + " pages"
+                        + (atlas.isCached() ? " (cached)" : ""));
+                for (int p = 0; p < atlas.getPageCount(); p++) {
+                    ImGui.text("  Page " + p + ": " + (int) (atlas.getOccupancy(p) * 100) + "% occupied");
+                }
+            }
             if (ImGui.button("Exit")) {
                 glfwSetWindowShouldClose(glfwGetCurrentContext(), true);
             }
@@ -1,10 +1,14 @@
 package engine;
 
+import imgui.ImGui;
+import imgui.type.ImBoolean;
 import observers.Event;
 import observers.EventSystem;
 import observers.EventType;
 import org.joml.Vector2f;
 import physics2d.Physics2D;
+import physics2d.PhysicsStats;
+import project.Project;
 import project.ProjectManager;
 import render.Renderer;
 import util.AssetPool;
@@ -18,6 +22,8 @@ import static util.Constants.DEFAULT_VERTEX_SHADER;
 
 public class GameView extends View {
 
+    private boolean physicsDebug = false;
+
     public GameView() {
         // Initialize the game scene
         System.out.println("Game Scene Initialized");
@@ -31,6 +37,11 @@ public class GameView extends View {
         loadResources();
         this.camera = new Camera(new Vector2f());
         this.physics2D = new Physics2D();
+        Project project = ProjectManager.get().getCurrentProject();
+        this.physics2D.setThreaded(project != null && project.isThreadedPhysics());
+        this.physics2D.setMergeStaticColliders(project != null && project.isMergeStaticColliders());
+        if (project != null) this.physics2D.setCollisionLayers(project.getCollisionLayers());
+        this.physicsDebug = project != null && project.isPhysicsDebug();
         this.gameObjects = new ArrayList<>();
         this.renderer = new Renderer();
         this.activeGameObject = null;
@@ -88,6 +99,8 @@ public class GameView extends View {
             assert false : "Physics update failed";
         }
 
+        // ladicí čáry ze skriptů (a dožití čar s delší životností)
+        Renderer.getDebugDraw().render(camera);
 
 
         if (KeyListener.isKeyTyped(GLFW_KEY_TAB)) {
@@ -97,7 +110,24 @@ public class GameView extends View {
 
     @Override
     public void imgui(float dt) {
-
-
+        // okno jen s nastavením physicsDebug v projektu
+        if (!physicsDebug) return;
+        PhysicsStats stats = physics2D.getStats();
+        ImGui.begin("Physics");
+        ImBoolean profiling = new ImBoolean(physics2D.isProfiling());
+        if (ImGui.checkbox("Profiling", profiling)) physics2D.setProfiling(profiling.get());
+        ImBoolean adaptive = new ImBoolean(physics2D.isAdaptiveIterations());
+        if (ImGui.checkbox("Adaptive iterations", adaptive)) physics2D.setAdaptiveIterations(adaptive.get());
+
+        ImGui.text(String.format("Step: %.3f ms (%d steps, solver %.3f ms)",
+                stats.getStepTimeMs(), stats.getSteps(), stats.getSolveTimeMs()));
+        ImGui.text("Iterations: " + stats.getVelocityIterations() + " velocity, "
+                + stats.getPositionIterations() + " position");
+        if (physics2D.isProfiling()) {
+            ImGui.text("Bodies: " + stats.getBodies() + " (" + stats.getAwakeBodies() + " awake)");
+            ImGui.text("Contacts: " + stats.getContacts() + ", islands: " + stats.getIslands());
+        }
+        ImGui.text(physics2D.getLoadStats().toString());
+        ImGui.end();
     }
 }
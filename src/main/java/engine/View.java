@@ -13,7 +13,10 @@ import render.Renderer;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.lwjgl.glfw.GLFW.*;
 
@@ -45,8 +48,8 @@ public class View {
         for (GameObject gameObject : gameObjects) {
             gameObject.start();
             this.renderer.add(gameObject);
-            this.physics2D.add(gameObject);
         }
+        this.physics2D.addAll(gameObjects);
         isRunning = true;
     }
 
@@ -73,6 +76,18 @@ public class View {
             removeFromGroups(root, gameObject);
         }
     }
+    // Hromadné odebrání – seznam objektů se projde jen jednou místo jednou za každý objekt
+    public void removeGameObjects(Collection<GameObject> toRemove) {
+        Set<GameObject> targets = new HashSet<>(toRemove);
+        targets.retainAll(new HashSet<>(this.gameObjects));
+        this.gameObjects.removeIf(targets::contains);
+        for (GameObject gameObject : targets) {
+            this.renderer.remove(gameObject);
+            this.physics2D.destroyGameObject(gameObject);
+            removeFromGroups(root, gameObject);
+        }
+    }
+
     private void removeFromGroups(Group group, GameObject go) {
         group.remove(go);
         for (Group g : group.getGroups()) {
@@ -88,6 +103,15 @@ public class View {
         return this.camera;
     }
 
+    public Physics2D getPhysics() {
+        return this.physics2D;
+    }
+
+    // Uvolnění před nahrazením view (vlákno fyziky)
+    public void dispose() {
+        if (this.physics2D != null) this.physics2D.shutdown();
+    }
+
     public void viewImgui(float dt) {
 
 
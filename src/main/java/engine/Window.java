@@ -15,6 +15,7 @@ import org.lwjgl.openal.ALCCapabilities;
 import org.lwjgl.openal.ALCapabilities;
 import org.lwjgl.opengl.GL;
 import project.ProjectManager;
+import render.Renderer;
 import util.Constants;
 
 import java.util.ArrayList;
@@ -57,6 +58,7 @@ public class Window implements Observer {
 
     public static void setCurrentView(int scene) {
         if (currentView != null) {
+            currentView.dispose();
             for (GameObject go : currentView.getAllGameObjects()) {
                 for (Component c : go.getAllAnimations()) {
                     if (c instanceof Animation) {
@@ -102,6 +104,7 @@ public class Window implements Observer {
     public static void setScene(Scene scene) {
         if (currentView.currentScene.getName().equals(scene.getName())) return;
         ProjectManager.get().saveProject();
+        currentView.dispose();
         if (currentView.isGame) currentView = new GameView();
         else currentView = new EditorView();
         actionManager = new ActionManager();
@@ -172,6 +175,8 @@ public class Window implements Observer {
     }
 
     public void updateTitle() {
+        // bez okna (headless běh) není co přejmenovat
+        if (glfwWindow == NULL) return;
         String projectName = "Unnamed Project";
         ProjectManager pm = ProjectManager.get();
 
@@ -306,6 +311,7 @@ public class Window implements Observer {
             glClearColor(Constants.BACKGROUND_COLOR[0], Constants.BACKGROUND_COLOR[1], Constants.BACKGROUND_COLOR[2], Constants.BACKGROUND_COLOR[3]);
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
+            Renderer.getState().beginFrame();
             currentView.update(deltaTime);
 
             imGuiLayer.update(deltaTime, currentView);
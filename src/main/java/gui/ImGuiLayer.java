@@ -640,7 +640,9 @@ public class ImGuiLayer implements Observer {
             ImGui.getWindowDrawList().addImage(
                     texture.getId(),
                     x, y,
-                    x + TILE_SIZE, y + TILE_SIZE
+                    x + TILE_SIZE, y + TILE_SIZE,
+                    texture.mapU(0), texture.mapV(0),
+                    texture.mapU(1), texture.mapV(1)
             );
         } else {
             ImGui.getWindowDrawList().addRectFilled(
@@ -658,7 +660,8 @@ public class ImGuiLayer implements Observer {
             );
             ImGui.text(file.getName());
             if (texture != null) {
-                ImGui.image(texture.getId(), 48, 48);
+                ImGui.image(texture.getId(), 48, 48,
+                        texture.mapU(0), texture.mapV(0), texture.mapU(1), texture.mapV(1));
             } else {
                 System.out.println("kreslim");
                 ImGui.getWindowDrawList().addRectFilled(
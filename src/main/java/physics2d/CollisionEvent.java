@@ -0,0 +1,15 @@
+package physics2d;
+
+// Začátek/konec dotyku dvou těles zjištěný během kroku fyziky, doručí se na hlavním vlákně.
+// Instance patří snapshotu a používají se znovu, mimo publikování se nedrží.
+public class CollisionEvent {
+    public PhysicsBody self;
+    public PhysicsBody other;
+    public boolean enter;
+
+    void set(PhysicsBody self, PhysicsBody other, boolean enter) {
+        this.self = self;
+        this.other = other;
+        this.enter = enter;
+    }
+}
@@ -0,0 +1,121 @@
+package physics2d;
+
+import engine.Window;
+import org.jbox2d.dynamics.Filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pojmenované kolizní vrstvy projektu a matice, které dvojice vrstev spolu kolidují.
+ * Vrstva s indexem i je kategorie (1 << i) ve filtru JBox2D a řádek matice je její maska,
+ * takže dvojice, které se nikdy nesetkají, vyřadí už broadphase a do narrowphase nedojdou.
+ * Vrstva 0 je vždy "Default"; neznámé jméno vrstvy se chová jako Default.
+ */
+public class CollisionLayers {
+    public static final String DEFAULT = "Default";
+    // JBox2D filtr má 16 bitů kategorií
+    public static final int MAX_LAYERS = 16;
+    private static final int ALL = 0xFFFF;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> namesView = Collections.unmodifiableList(names);
+    private final int[] masks = new int[MAX_LAYERS];
+
+    public CollisionLayers() {
+        addLayer(DEFAULT);
+    }
+
+    /**
+     * Vrstvy z konfigurace projektu: seznam jmen a matice jako mapa vrstva -> vrstvy, se kterými
+     * koliduje. Vrstva bez řádku koliduje se vším; dvojice koliduje, jen když ji povolují oba řádky.
+     * Vrstvy nad limit a neznámá jména v matici se přeskočí a nahlásí přes Window.addError,
+     * projekt se tím otevře dál.
+     */
+    public static CollisionLayers fromConfig(List<String> layers, Map<String, List<String>> matrix) {
+        CollisionLayers result = new CollisionLayers();
+        if (layers != null) {
+            for (String name : layers) {
+                if (result.indexOf(name) != -1) continue;
+                if (result.addLayer(name) == -1) {
+                    Window.addError("Collision layer '" + name + "' ignored: at most " + MAX_LAYERS + " layers");
+                }
+            }
+        }
+        if (matrix != null) {
+            for (Map.Entry<String, List<String>> row : matrix.entrySet()) {
+                if (result.indexOf(row.getKey()) == -1) {
+                    Window.addError("Collision matrix row '" + row.getKey() + "' ignored: unknown layer");
+                    continue;
+                }
+                if (row.getValue() == null) continue;
+                for (String other : row.getValue()) {
+                    if (result.indexOf(other) == -1) {
+                        Window.addError("Collision matrix: unknown layer '" + other + "' in row '" + row.getKey() + "'");
+                    }
+                }
+                for (String other : result.names) {
+                    if (!row.getValue().contains(other)) result.setCollides(row.getKey(), other, false);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Nová vrstva koliduje se všemi; vrátí její index, nebo -1, když je vrstev už MAX_LAYERS
+    public int addLayer(String name) {
+        if (names.size() == MAX_LAYERS) return -1;
+        int index = names.size();
+        names.add(name);
+        masks[index] = ALL;
+        return index;
+    }
+
+    public int indexOf(String name) {
+        return names.indexOf(name);
+    }
+
+    // Matice je symetrická, mění se vždy obě masky
+    public void setCollides(String a, String b, boolean collides) {
+        int ia = indexOf(a), ib = indexOf(b);
+        if (ia == -1 || ib == -1) return;
+        if (collides) {
+            masks[ia] |= 1 << ib;
+            masks[ib] |= 1 << ia;
+        } else {
+            masks[ia] &= ~(1 << ib);
+            masks[ib] &= ~(1 << ia);
+        }
+    }
+
+    public boolean collides(String a, String b) {
+        return (getMaskBits(a) & getCategoryBits(b)) != 0;
+    }
+
+    public int getCategoryBits(String layer) {
+        return 1 << index(layer);
+    }
+
+    public int getMaskBits(String layer) {
+        return masks[index(layer)];
+    }
+
+    // Nastaví kategorii a masku vrstvy do filtru fixture
+    public void applyTo(Filter filter, String layer) {
+        int i = index(layer);
+        filter.categoryBits = 1 << i;
+        filter.maskBits = masks[i];
+        filter.groupIndex = 0;
+    }
+
+    public List<String> getNames() {
+        return namesView;
+    }
+
+    private int index(String layer) {
+        int i = layer != null ? names.indexOf(layer) : -1;
+        return i != -1 ? i : 0;
+    }
+}
@@ -0,0 +1,68 @@
+package physics2d;
+
+import engine.GameObject;
+import engine.Group;
+import project.ProjectManager;
+import render.RecordingBackend;
+import render.Renderer;
+
+import java.util.List;
+
+/**
+ * Headless běh fyziky v lockstepu: načte scénu (bez skriptů), udělá zadaný počet kroků a vypíše
+ * hash stavu po každém kroku. Dva běhy stejné scény musí vypsat stejnou posloupnost.
+ *
+ * Použití: LockstepRunner <project.json> <scéna> [kroky] [--merge]
+ */
+public class LockstepRunner {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: LockstepRunner <project.json> <scene> [steps] [--merge]");
+            return;
+        }
+
+        String projectFile = args[0];
+        String scene = args[1];
+        int steps = 600;
+        boolean merge = false;
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--merge" -> merge = true;
+                default -> steps = Integer.parseInt(args[i]);
+            }
+        }
+
+        // textury a shadery scény se nahrávají přes backend, bez okna jen naprázdno
+        RecordingBackend backend = new RecordingBackend();
+        backend.setRecording(false);
+        Renderer.setBackend(backend);
+
+        ProjectManager.get().openProject(projectFile);
+        if (ProjectManager.get().getCurrentProject() == null) {
+            System.out.println("Cannot open project " + projectFile);
+            return;
+        }
+
+        Group root = new Group("Root");
+        if (!ProjectManager.get().loadSceneInto(scene, root, false)) {
+            System.out.println("Cannot load scene " + scene);
+            return;
+        }
+        List<GameObject> objects = root.getAllObjectsRecursive();
+
+        Physics2D physics = new Physics2D();
+        physics.setLockstep(true);
+        physics.setMergeStaticColliders(merge);
+        physics.setCollisionLayers(ProjectManager.get().getCurrentProject().getCollisionLayers());
+        physics.addAll(objects);
+
+        for (int i = 0; i < steps; i++) {
+            physics.update(physics.getPhysicsTimeStep());
+            System.out.printf("%d %016x%n", physics.getTick(), physics.getStateHash());
+        }
+        System.out.printf("Final: %d steps, %d bodies, hash %016x%n",
+                physics.getTick(), physics.getWorld().getBodyCount(), physics.getStateHash());
+    }
+}
@@ -1,14 +1,38 @@
 package physics2d;
 
+import components.ScriptComponent;
+import engine.Component;
 import engine.GameObject;
 import engine.Transform;
 import org.jbox2d.collision.shapes.CircleShape;
 import org.jbox2d.collision.shapes.PolygonShape;
+import org.jbox2d.collision.shapes.Shape;
 import org.jbox2d.common.Vec2;
 import org.jbox2d.dynamics.*;
+import org.jbox2d.dynamics.contacts.Contact;
+import org.jbox2d.dynamics.contacts.ContactEdge;
 import org.joml.Vector2f;
 import physics2d.components.*;
-
+import scripts.Script;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fyzikální svět scény. Krok běží buď synchronně v update(), nebo (threaded) na vlastním vlákně:
+ * update() počká na krok spuštěný minulým snímkem, publikuje jeho snapshot (transformy + kolize)
+ * a hned spustí další, takže simulace běží souběžně s renderem a skripty dalšího snímku.
+ * Změny světa z hlavního vlákna (tělesa, síly) jdou přes frontu příkazů submit().
+ */
 public class Physics2D {
     private Vec2 gravity = new Vec2(0, -10.0f);
 
@@ -17,8 +41,9 @@ public class Physics2D {
     }
 
     private World world = new World(gravity);
+    private final PhysicsQuery query = new PhysicsQuery(world);
 
-    private final ContactListener contactListener = new ContactListener();
+    private final ContactListener contactListener = new ContactListener(this);
 
     private float physicsTime = 0.0f;
 //    private float physicsTimeStep = 1.0f / 60.0f;
@@ -26,181 +51,855 @@ public class Physics2D {
     private int velocityIterations = 16;
     private int positionIterations = 6;
 
+    // Adaptivní iterace: řešič se stáhne v mezích, aby průměrný krok nepřekročil stepBudgetMs
+    private boolean adaptiveIterations = false;
+    private float stepBudgetMs = 1.0f;
+    private int minVelocityIterations = 4, maxVelocityIterations = 16;
+    private int minPositionIterations = 2, maxPositionIterations = 6;
+    private static final int ADAPT_INTERVAL = 10;
+    private float smoothedStepMs = -1.0f;
+    private int adaptCooldown = 0;
+
+    // Počty těles/kontaktů/ostrovů do statistik (ostrovy stojí průchod grafem kontaktů)
+    private boolean profiling = false;
+    private PhysicsStats stats = new PhysicsStats();
+    private PhysicsBody[] islandStack = new PhysicsBody[64];
+    private int islandStamp = 0;
+
+    // Max. počet kroků za snímek; co se nestihne, zahodí se (simulace po záseku nedohání donekonečna)
+    private int maxSubSteps = 5;
+    // Kolik ze započatého kroku už uběhlo (0..1), podle toho RigidBody2D interpoluje transformy
+    private float interpolationAlpha = 0.0f;
+    private int lastSubSteps = 0;
+
+    // Příkazy pro svět z hlavního vlákna, provedou se na začátku dalšího update simulace
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    // Double buffer: front čte hlavní vlákno, back plní simulace
+    private PhysicsSnapshot front = new PhysicsSnapshot();
+    private PhysicsSnapshot back = new PhysicsSnapshot();
+
+    private boolean threaded = false;
+    private ExecutorService executor;
+    private Future<?> pending;
+
+    // Registr těles (swap-remove podle PhysicsBody.index); mění ho jen simulace a příkazy
+    private PhysicsBody[] bodies = new PhysicsBody[64];
+    private int bodyCount = 0;
+    private final Map<GameObject, PhysicsBody> bodyByObject = new HashMap<>();
+
+    // Snapshot, do kterého jdou události kontaktů (ten, který se publikuje příště)
+    private PhysicsSnapshot recording = back;
+    // Kolizní komponenty s událostmi z minulého publikování, před dalším se jim vymažou
+    private final List<CollisionComponent> notified = new ArrayList<>();
+
+    // Šablony pro stavbu těles (jen na vlákně simulace / v příkazech)
+    private final BodyDef bodyDef = new BodyDef();
+    private final FixtureDef fixtureDef = new FixtureDef();
+    private final PolygonShape boxShape = new PolygonShape();
+    private final CircleShape circleShape = new CircleShape();
+    private final Vec2 shapeCenter = new Vec2();
+    private final PhysicsLoadStats loadStats = new PhysicsLoadStats();
+
+    // Lockstep: jeden pevný krok na update, stabilní pořadí těles a hash stavu po každém kroku
+    private boolean lockstep = false;
+    private long tick = 0;
+    private long publishedTick = 0;
+    private long publishedHash = 0;
+
+    // Slučování statických box dlaždic při addAll (nastavení projektu)
+    private boolean mergeStaticColliders = false;
+    private final Map<GameObject, StaticColliderGroup> tileGroups = new HashMap<>();
+    // Záznam skupiny, které se právě přestavují fixtures, a dvojice (a, b) s odloženým koncem kontaktu
+    private PhysicsBody rebuilding = null;
+    private final List<PhysicsBody> suspendedPairs = new ArrayList<>();
+
+    // Kolizní vrstvy projektu, podle nich dostávají fixtures kategorii a masku filtru
+    private CollisionLayers collisionLayers = new CollisionLayers();
+    private final Filter filter = new Filter();
+
+    public Physics2D() {
+        world.setContactListener(contactListener);
+    }
+
     public void add(GameObject go) {
-        RigidBody2D rb = go.getComponent(RigidBody2D.class);
-        if (rb != null && rb.getRawBody() == null) {
-            Transform transform = go.transform;
-
-            BodyDef bodyDef = new BodyDef();
-            bodyDef.angle = transform.rotation;
-            bodyDef.position.set(transform.position.x, transform.position.y);
-            bodyDef.angularDamping = rb.getAngularDamping();
-            bodyDef.linearDamping = rb.getLinearDamping();
-            bodyDef.fixedRotation = rb.isFixedRotation();
-            bodyDef.bullet = rb.isContinuousCollision();
-
-            switch (rb.getBodyType()) {
-                case Kinematic -> bodyDef.type = BodyType.KINEMATIC;
-                case Static -> bodyDef.type = BodyType.STATIC;
-                case Dynamic -> bodyDef.type = BodyType.DYNAMIC;
-            }
+        // transformace se vezme teď, příkaz může běžet až na vlákně fyziky
+        Transform transform = go.transform;
+        float x = transform.position.x, y = transform.position.y, angle = transform.rotation;
+        submit(() -> createBody(go, x, y, angle));
+    }
 
-            Body body = this.world.createBody(bodyDef);
-            rb.setRawBody(body);
+    /**
+     * Hromadné přidání (start scény) jedním příkazem: definice těles a tvarů se znovu používají
+     * a se zapnutým slučováním se statické box dlaždice spojí do společných těles.
+     * Výsledek je v getLoadStats().
+     */
+    public void addAll(Collection<GameObject> gameObjects) {
+        List<GameObject> objects = new ArrayList<>(gameObjects);
+        // lockstep: pořadí těles ve světě (a tím řešiče) nezávisí na pořadí ve scéně
+        if (lockstep) objects.sort(Comparator.comparingLong(GameObject::getId));
+        float[] transforms = new float[objects.size() * 3];
+        for (int i = 0; i < objects.size(); i++) {
+            Transform transform = objects.get(i).transform;
+            transforms[i * 3] = transform.position.x;
+            transforms[i * 3 + 1] = transform.position.y;
+            transforms[i * 3 + 2] = transform.rotation;
+        }
 
-            body.setUserData(go);
+        submit(() -> {
+            long start = System.nanoTime();
+            loadStats.reset();
+            loadStats.addObjects(objects.size());
+
+            List<GameObject> tiles = new ArrayList<>();
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject go = objects.get(i);
+                if (mergeStaticColliders && isMergeableTile(go, transforms[i * 3 + 2])) {
+                    tiles.add(go);
+                    continue;
+                }
+                createBody(go, transforms[i * 3], transforms[i * 3 + 1], transforms[i * 3 + 2]);
+            }
+            if (!tiles.isEmpty()) mergeTiles(tiles);
 
-            CircleCollider cc = go.getComponent(CircleCollider.class);
-            if (cc != null) {
-                CircleShape shape = new CircleShape();
-                shape.m_radius = cc.getRadius();
-                shape.m_p.set(cc.getOffset().x, cc.getOffset().y);
+            loadStats.setNanos(System.nanoTime() - start);
+        });
+    }
 
-                createFixtureDefCircle(rb, body, shape);
-            }
+    private void createBody(GameObject go, float x, float y, float angle) {
+        // komponenty jedním průchodem místo getComponent pro každý typ
+        RigidBody2D rb = null;
+        CircleCollider cc = null;
+        Box2DCollider bc = null;
+        CapsuleCollider cap = null;
+        for (Component c : go.getAllComponents()) {
+            if (rb == null && c instanceof RigidBody2D r) rb = r;
+            else if (cc == null && c instanceof CircleCollider circle) cc = circle;
+            else if (bc == null && c instanceof Box2DCollider box) bc = box;
+            else if (cap == null && c instanceof CapsuleCollider capsule) cap = capsule;
+        }
+        if (rb == null || rb.getRawBody() != null) return;
+
+        bodyDef.angle = angle;
+        bodyDef.position.set(x, y);
+        bodyDef.angularDamping = rb.getAngularDamping();
+        bodyDef.linearDamping = rb.getLinearDamping();
+        bodyDef.fixedRotation = rb.isFixedRotation();
+        bodyDef.bullet = rb.isContinuousCollision();
+
+        switch (rb.getBodyType()) {
+            case Kinematic -> bodyDef.type = BodyType.KINEMATIC;
+            case Static -> bodyDef.type = BodyType.STATIC;
+            case Dynamic -> bodyDef.type = BodyType.DYNAMIC;
+        }
 
-            Box2DCollider bc = go.getComponent(Box2DCollider.class);
-            if (bc != null) {
-                PolygonShape shape = new PolygonShape();
-                Vector2f hs = new Vector2f(bc.getHalfSize()).mul(0.5f);
-                Vector2f off = bc.getOffset();
-                shape.setAsBox(hs.x, hs.y, new Vec2(off.x, off.y), 0);
+        Body body = this.world.createBody(bodyDef);
+        rb.setRawBody(body);
+        body.setUserData(go);
+        loadStats.addBody();
 
-                FixtureDef fd = new FixtureDef();
-                fd.shape = shape;
-                fd.density = rb.getDensity();
-                fd.friction = rb.getFriction();
-                fd.restitution = rb.getRestitution();
-                fd.isSensor = rb.isSensor();
+        if (cc != null) {
+            circleShape.m_radius = cc.getRadius();
+            circleShape.m_p.set(cc.getOffset().x, cc.getOffset().y);
+            createFixture(rb, body, circleShape);
+        }
 
-                System.out.println("Density: " + fd.density + " Friction: " + fd.friction + " Restitution: " + fd.restitution);
+        if (bc != null) {
+            Vector2f off = bc.getOffset();
+            shapeCenter.set(off.x, off.y);
+            boxShape.setAsBox(bc.getHalfSize().x * 0.5f, bc.getHalfSize().y * 0.5f, shapeCenter, 0);
+            createFixture(rb, body, boxShape);
+        }
 
-                body.createFixture(fd);
-            }
+        if (cap != null) {
+            float r = cap.getRadius();
+            float h = cap.getHeight();
+            float halfStraight = (h / 2f) - r;
 
-            CapsuleCollider cap = go.getComponent(CapsuleCollider.class);
-            if (cap != null) {
-
-                float r = cap.getRadius();
-                float h = cap.getHeight();
-                float halfStraight = (h / 2f) - r;
-
-                Vector2f off = cap.getOffset();
-
-                // horní kruh
-                CircleShape top = new CircleShape();
-                top.m_radius = r;
-                top.m_p.set(off.x, off.y + halfStraight);
-                createFixtureDefCircle(rb, body, top);
-
-                // dolní kruh
-                CircleShape bottom = new CircleShape();
-                bottom.m_radius = r;
-                bottom.m_p.set(off.x, off.y - halfStraight);
-                createFixtureDefCircle(rb, body, bottom);
-
-                // střední box
-                PolygonShape box = new PolygonShape();
-                box.setAsBox(r, halfStraight, new Vec2(off.x, off.y), 0);
-                FixtureDef boxFD = new FixtureDef();
-                boxFD.shape = box;
-                boxFD.density = rb.getDensity();
-                boxFD.friction = rb.getFriction();
-                boxFD.restitution = rb.getRestitution();
-                boxFD.isSensor = rb.isSensor();
-                body.createFixture(boxFD);
-            }
+            Vector2f off = cap.getOffset();
 
+            // horní kruh
+            circleShape.m_radius = r;
+            circleShape.m_p.set(off.x, off.y + halfStraight);
+            createFixture(rb, body, circleShape);
 
+            // dolní kruh
+            circleShape.m_p.set(off.x, off.y - halfStraight);
+            createFixture(rb, body, circleShape);
 
+            // střední box
+            shapeCenter.set(off.x, off.y);
+            boxShape.setAsBox(r, halfStraight, shapeCenter, 0);
+            createFixture(rb, body, boxShape);
         }
+
+        register(new PhysicsBody(go, rb, body));
     }
 
-    private void createFixtureDefCircle(RigidBody2D rb, Body body, CircleShape shape) {
-        FixtureDef fd = new FixtureDef();
-        fd.shape = shape;
-        fd.density = rb.getDensity();
-        fd.friction = rb.getFriction();
-        fd.restitution = rb.getRestitution();
-        fd.isSensor = rb.isSensor();
+    // Šablona FixtureDef; createFixture si tvar kopíruje, takže i tvary se znovu používají
+    private void createFixture(RigidBody2D rb, Body body, Shape shape) {
+        fixtureDef.shape = shape;
+        fixtureDef.density = rb.getDensity();
+        fixtureDef.friction = rb.getFriction();
+        fixtureDef.restitution = rb.getRestitution();
+        fixtureDef.isSensor = rb.isSensor();
+        collisionLayers.applyTo(fixtureDef.filter, rb.getCollisionLayer());
+        body.createFixture(fixtureDef);
+        loadStats.addFixture();
+    }
 
-        body.createFixture(fd);
+    // Statická dlaždice jen s box colliderem, bez rotace a bez skriptů (ty by přišly o vlastní kolize)
+    private boolean isMergeableTile(GameObject go, float angle) {
+        RigidBody2D rb = null;
+        Box2DCollider bc = null;
+        for (Component c : go.getAllComponents()) {
+            if (c instanceof RigidBody2D r) rb = r;
+            else if (c instanceof Box2DCollider box) bc = box;
+            else if (c instanceof CircleCollider || c instanceof CapsuleCollider || c instanceof ScriptComponent) return false;
+        }
+        return rb != null && bc != null && rb.getRawBody() == null && angle == 0.0f
+                && rb.getBodyType() == physics2d.enums.BodyType.Static && !rb.isSensor();
     }
 
-    private void clearAllCollisions() {
-        for (Body b = world.getBodyList(); b != null; b = b.getNext()) {
-            GameObject go = (GameObject) b.getUserData();
-            if (go == null) continue;
+    private void mergeTiles(List<GameObject> tiles) {
+        List<StaticColliderGroup> created = new ArrayList<>();
+        for (GameObject tile : tiles) {
+            RigidBody2D rb = tile.getComponent(RigidBody2D.class);
+            StaticColliderGroup group = null;
+            for (StaticColliderGroup g : created) {
+                if (g.matches(tile.getZIndex(), rb)) {
+                    group = g;
+                    break;
+                }
+            }
+            if (group == null) {
+                group = new StaticColliderGroup(tile.getZIndex(), rb);
+                created.add(group);
+            }
+            group.add(tile);
+        }
 
-            CollisionComponent cc = go.getComponent(CollisionComponent.class);
-            if (cc != null) {
-                cc.clear();
+        for (StaticColliderGroup group : created) {
+            bodyDef.angle = 0;
+            bodyDef.position.setZero();
+            bodyDef.angularDamping = 0;
+            bodyDef.linearDamping = 0;
+            bodyDef.fixedRotation = false;
+            bodyDef.bullet = false;
+            bodyDef.type = BodyType.STATIC;
+            group.body = world.createBody(bodyDef);
+            loadStats.addBody();
+
+            for (GameObject tile : group.getTiles()) {
+                tile.getComponent(RigidBody2D.class).setRawBody(group.body);
+                tileGroups.put(tile, group);
             }
+            int shapes = buildGroup(group);
+            loadStats.addMerged(group.getTiles().size(), shapes);
+            for (int i = 0; i < shapes; i++) loadStats.addFixture();
         }
     }
 
-    private void addCollision(GameObject self, GameObject other) {
-        CollisionComponent cc = self.getComponent(CollisionComponent.class);
-        if (cc != null) {
-            cc.begin(other);
+    /**
+     * (Znovu) postaví fixtures skupiny a její záznam v registru. Dokud zůstává stejná
+     * reprezentativní dlaždice, záznam se ponechá a konce kontaktů zničených fixtures se odloží
+     * do dalšího kroku (endSuspended), takže tělesa ležící na skupině nedostanou falešný exit/enter.
+     */
+    private int buildGroup(StaticColliderGroup group) {
+        GameObject representative = group.representative();
+        boolean keepEntry = group.entry != null && group.entry.gameObject == representative;
+
+        if (keepEntry) rebuilding = group.entry;
+        int shapes = group.build(fixtureDef, collisionLayers);
+        rebuilding = null;
+
+        if (keepEntry) {
+            for (Fixture f = group.body.getFixtureList(); f != null; f = f.getNext()) {
+                f.setUserData(group.entry);
+            }
+            return shapes;
+        }
+        if (group.entry != null) unregister(group.entry);
+        group.body.setUserData(representative);
+        // záznam bez RigidBody2D: snapshot skupině nepřepisuje transformace dlaždic
+        group.entry = new PhysicsBody(representative, null, group.body);
+        register(group.entry);
+        return shapes;
+    }
+
+    private void removeTile(GameObject tile, StaticColliderGroup group) {
+        tileGroups.remove(tile);
+        tile.getComponent(RigidBody2D.class).setRawBody(null);
+        group.remove(tile);
+        if (group.isEmpty()) {
+            unregister(group.entry);
+            world.destroyBody(group.body);
+            return;
+        }
+        buildGroup(group);
+    }
+
+    private void register(PhysicsBody entry) {
+        for (Fixture f = entry.body.getFixtureList(); f != null; f = f.getNext()) {
+            f.setUserData(entry);
+        }
+        if (bodyCount == bodies.length) {
+            PhysicsBody[] newBodies = new PhysicsBody[bodyCount * 2];
+            System.arraycopy(bodies, 0, newBodies, 0, bodyCount);
+            bodies = newBodies;
+        }
+        entry.index = bodyCount;
+        bodies[bodyCount++] = entry;
+        bodyByObject.put(entry.gameObject, entry);
+    }
+
+    private void unregister(PhysicsBody entry) {
+        int last = bodyCount - 1;
+        if (entry.index != last) {
+            bodies[entry.index] = bodies[last];
+            bodies[entry.index].index = entry.index;
         }
+        bodies[last] = null;
+        bodyCount--;
+        entry.index = -1;
+        entry.body = null;
+        bodyByObject.remove(entry.gameObject);
+    }
+
+    /**
+     * Provede příkaz nad světem: v synchronním režimu hned, jinak ho zařadí do fronty,
+     * kterou vlákno fyziky vybere před dalšími kroky. Jediný bezpečný způsob, jak měnit svět
+     * z hlavního vlákna, když běží threaded.
+     */
+    public void submit(Runnable command) {
+        if (!threaded) {
+            command.run();
+            return;
+        }
+        commands.add(command);
     }
 
     public void update(float dt) {
+        if (!threaded) {
+            simulate(dt, back);
+            publish(back);
+            return;
+        }
+
+        // výsledek kroku spuštěného minulým snímkem
+        awaitPending();
+        PhysicsSnapshot ready = back;
+        back = front;
+        front = ready;
+        publish(front);
+
+        PhysicsSnapshot target = back;
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Physics");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        pending = executor.submit(() -> simulate(dt, target));
+    }
+
+    // Běží na vlákně fyziky (threaded) nebo hlavním; hlavní vlákno se světa mezitím nedotýká
+    private void simulate(float dt, PhysicsSnapshot snapshot) {
+        recording = snapshot;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+
+        snapshot.begin(bodies, bodyCount);
+        PhysicsStats frameStats = snapshot.getStats();
+        frameStats.reset(velocityIterations, positionIterations);
+
+        if (lockstep) {
+            // právě jeden pevný krok za update, dt se nepoužije
+            snapshot.beforeStep();
+            long start = System.nanoTime();
+            step();
+            frameStats.addStep(System.nanoTime() - start, world.getProfile().solve);
+            tick++;
+            snapshot.end(1.0f);
+            snapshot.setHash(tick, stateHash());
+            if (profiling) countBodies(frameStats);
+            return;
+        }
+
         physicsTime += dt;
-        if (physicsTime >= physicsTimeStep) {
+        int steps = 0;
+        while (physicsTime >= physicsTimeStep && steps < maxSubSteps) {
             physicsTime -= physicsTimeStep;
+            snapshot.beforeStep();
+            long start = System.nanoTime();
+            step();
+            frameStats.addStep(System.nanoTime() - start, world.getProfile().solve);
+            steps++;
+        }
+        // zbytek nad limit kroků se zahodí, zůstane jen rozpracovaný krok
+        if (physicsTime >= physicsTimeStep) physicsTime %= physicsTimeStep;
+
+        snapshot.end(physicsTime / physicsTimeStep);
 
-            for (Body b = world.getBodyList(); b != null; b = b.getNext()) {
-                GameObject go = (GameObject) b.getUserData();
-                if (go == null) continue;
+        if (profiling) countBodies(frameStats);
+        if (adaptiveIterations && steps > 0) adaptIterations(frameStats.getAverageStepTimeMs());
+    }
+
+    /**
+     * Hash stavu světa po kroku (FNV-1a přes bity pozic, úhlů a rychlostí) v pořadí seznamu těles
+     * světa, které je při stejném pořadí vytváření a rušení vždy stejné.
+     */
+    private long stateHash() {
+        long hash = 0xcbf29ce484222325L;
+        for (Body b = world.getBodyList(); b != null; b = b.getNext()) {
+            hash = mix(hash, Float.floatToIntBits(b.getPosition().x));
+            hash = mix(hash, Float.floatToIntBits(b.getPosition().y));
+            hash = mix(hash, Float.floatToIntBits(b.getAngle()));
+            hash = mix(hash, Float.floatToIntBits(b.getLinearVelocity().x));
+            hash = mix(hash, Float.floatToIntBits(b.getLinearVelocity().y));
+            hash = mix(hash, Float.floatToIntBits(b.getAngularVelocity()));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int bits) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (bits >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void countBodies(PhysicsStats frameStats) {
+        int awake = 0;
+        for (int i = 0; i < bodyCount; i++) {
+            if (bodies[i].body.isAwake()) awake++;
+        }
+        int contacts = 0;
+        for (var c = world.getContactList(); c != null; c = c.getNext()) {
+            if (c.isTouching()) contacts++;
+        }
+        frameStats.setCounts(world.getBodyCount(), awake, contacts, countIslands());
+    }
 
-                CollisionComponent cc = go.getComponent(CollisionComponent.class);
-                if (cc != null) {
-                    cc.sync();
-                    cc.clear();
+    /**
+     * Počet ostrovů, které řešič v kroku řeší: souvislé skupiny probuzených nestatických těles
+     * spojených dotýkajícími se kontakty (statická tělesa ostrovy nespojují), stejně jako World.solve.
+     */
+    private int countIslands() {
+        int stamp = ++islandStamp;
+        int islands = 0;
+        for (int i = 0; i < bodyCount; i++) {
+            PhysicsBody seed = bodies[i];
+            if (seed.islandStamp == stamp || !isIslandBody(seed.body)) continue;
+
+            islands++;
+            int top = 0;
+            islandStack[top++] = seed;
+            seed.islandStamp = stamp;
+            while (top > 0) {
+                Body b = islandStack[--top].body;
+                for (ContactEdge edge = b.getContactList(); edge != null; edge = edge.next) {
+                    Contact contact = edge.contact;
+                    if (!contact.isTouching() || !contact.isEnabled()) continue;
+                    if (contact.getFixtureA().isSensor() || contact.getFixtureB().isSensor()) continue;
+
+                    PhysicsBody other = (PhysicsBody) (edge.other == contact.getFixtureA().getBody()
+                            ? contact.getFixtureA().getUserData() : contact.getFixtureB().getUserData());
+                    if (other == null || other.islandStamp == stamp) continue;
+                    if (other.body.getType() == BodyType.STATIC) continue;
+
+                    other.islandStamp = stamp;
+                    if (top == islandStack.length) {
+                        PhysicsBody[] newStack = new PhysicsBody[top * 2];
+                        System.arraycopy(islandStack, 0, newStack, 0, top);
+                        islandStack = newStack;
+                    }
+                    islandStack[top++] = other;
                 }
             }
+        }
+        return islands;
+    }
 
-            world.step(physicsTimeStep, velocityIterations, positionIterations);
+    private boolean isIslandBody(Body body) {
+        return body.isAwake() && body.isActive() && body.getType() != BodyType.STATIC;
+    }
 
-            for (var c = world.getContactList(); c != null; c = c.getNext()) {
-                if (!c.isTouching()) continue;
+    /**
+     * Přizpůsobí iterace řešiče vyhlazenému času kroku: nad rozpočtem ubere (nejdřív rychlostní,
+     * pak polohové), pod polovinou rozpočtu vrací v opačném pořadí. Mění se nejvýš jednou za
+     * ADAPT_INTERVAL update, aby se vyhlazený čas stihl ustálit.
+     */
+    private void adaptIterations(float stepMs) {
+        smoothedStepMs = smoothedStepMs < 0 ? stepMs : smoothedStepMs * 0.8f + stepMs * 0.2f;
+        if (adaptCooldown > 0) {
+            adaptCooldown--;
+            return;
+        }
 
-                GameObject a = (GameObject) c.getFixtureA().getBody().getUserData();
-                GameObject b = (GameObject) c.getFixtureB().getBody().getUserData();
+        if (smoothedStepMs > stepBudgetMs) {
+            if (velocityIterations > minVelocityIterations) {
+                velocityIterations = Math.max(minVelocityIterations, velocityIterations - Math.max(1, velocityIterations / 4));
+            } else if (positionIterations > minPositionIterations) {
+                positionIterations--;
+            } else {
+                return;
+            }
+        } else if (smoothedStepMs < stepBudgetMs * 0.5f) {
+            if (positionIterations < maxPositionIterations) {
+                positionIterations++;
+            } else if (velocityIterations < maxVelocityIterations) {
+                velocityIterations++;
+            } else {
+                return;
+            }
+        } else {
+            return;
+        }
+        adaptCooldown = ADAPT_INTERVAL;
+    }
 
-                if (a == null || b == null) continue;
+    private void step() {
+        // začátky a konce dotyků hlásí ContactListener během kroku
+        world.step(physicsTimeStep, velocityIterations, positionIterations);
+        if (!suspendedPairs.isEmpty()) endSuspended();
+    }
 
-                addCollision(a, b);
-                addCollision(b, a);
-            }
+    /**
+     * Začátek kontaktu dvou fixtures (z ContactListener, na vlákně simulace); událost vznikne jen
+     * pro první kontakt dvojice těles.
+     */
+    public void contactBegan(PhysicsBody a, PhysicsBody b) {
+        boolean beganA = a.addContact(b);
+        boolean beganB = b.addContact(a);
+        // dvojice s odloženým koncem se jen znovu dotkla přestavěné skupiny
+        if ((beganA || beganB) && !suspendedPairs.isEmpty() && resumeSuspended(a, b)) return;
+        if (beganA) recording.addEvent(a, b, true);
+        if (beganB) recording.addEvent(b, a, true);
+    }
 
-            for (Body b = world.getBodyList(); b != null; b = b.getNext()) {
-                GameObject go = (GameObject) b.getUserData();
-                if (go == null) continue;
+    // Konec kontaktu, i při zničení tělesa; událost vznikne s posledním kontaktem dvojice
+    public void contactEnded(PhysicsBody a, PhysicsBody b) {
+        boolean endedA = a.removeContact(b);
+        boolean endedB = b.removeContact(a);
+        if ((endedA || endedB) && rebuilding != null && (a == rebuilding || b == rebuilding)) {
+            suspendedPairs.add(a);
+            suspendedPairs.add(b);
+            return;
+        }
+        if (endedA) recording.addEvent(a, b, false);
+        if (endedB) recording.addEvent(b, a, false);
+    }
 
-                CollisionComponent cc = go.getComponent(CollisionComponent.class);
-                if (cc == null) continue;
+    private boolean resumeSuspended(PhysicsBody a, PhysicsBody b) {
+        for (int i = 0; i < suspendedPairs.size(); i += 2) {
+            PhysicsBody x = suspendedPairs.get(i), y = suspendedPairs.get(i + 1);
+            if ((x == a && y == b) || (x == b && y == a)) {
+                suspendedPairs.remove(i + 1);
+                suspendedPairs.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
 
-                for (GameObject entered : cc.getEntered()) {
-                    go.getAllScriptInstances().forEach(s -> s.onCollisionEnter(entered));
-                }
+    // Po kroku: dvojice, které se s přestavěnou skupinou znovu nedotkly, dostanou konec kolize
+    private void endSuspended() {
+        for (int i = 0; i < suspendedPairs.size(); i += 2) {
+            PhysicsBody a = suspendedPairs.get(i), b = suspendedPairs.get(i + 1);
+            recording.addEvent(a, b, false);
+            recording.addEvent(b, a, false);
+        }
+        suspendedPairs.clear();
+    }
 
-                for (GameObject exited : cc.getExited()) {
-                    go.getAllScriptInstances().forEach(s -> s.onCollisionExit(exited));
-                }
+    // Hlavní vlákno: transformy do RigidBody2D, kolize do CollisionComponent a skriptů
+    private void publish(PhysicsSnapshot snapshot) {
+        snapshot.apply();
+        interpolationAlpha = snapshot.getAlpha();
+        lastSubSteps = snapshot.getSteps();
+        stats = snapshot.getStats();
+        publishedTick = snapshot.getTick();
+        publishedHash = snapshot.getHash();
+
+        for (int i = 0; i < notified.size(); i++) notified.get(i).clearEvents();
+        notified.clear();
+
+        for (int i = 0, n = snapshot.getEventCount(); i < n; i++) {
+            CollisionEvent event = snapshot.getEvent(i);
+            CollisionComponent cc = event.self.collision;
+            if (cc == null) continue;
+
+            if (!cc.hasEvents()) notified.add(cc);
+            GameObject other = event.other.gameObject;
+            if (event.enter) cc.begin(other);
+            else cc.end(other);
+
+            for (ScriptComponent sc : event.self.scripts) {
+                Script script = sc.getScriptInstance();
+                if (script == null) continue;
+                if (event.enter) script.onCollisionEnter(other);
+                else script.onCollisionExit(other);
             }
         }
+        snapshot.clearEvents();
+    }
+
+    // ==================================================
+    // Dotazy (broadphase), volají se z hlavního vlákna
+    // ==================================================
+
+    /**
+     * Objekty, jejichž fixtures zasahují do obdélníku (podle AABB fixtures).
+     *
+     * @return počet zapsaných objektů; při plném bufferu dotaz skončí
+     */
+    public int queryAABB(Vector2f min, Vector2f max, GameObject[] results) {
+        syncForQuery();
+        return query.queryAABB(min.x, min.y, max.x, max.y, results);
+    }
+
+    // Objekty, jejichž tvar se skutečně překrývá s kruhem
+    public int overlapCircle(Vector2f center, float radius, GameObject[] results) {
+        syncForQuery();
+        return query.overlapCircle(center.x, center.y, radius, results);
+    }
+
+    // Nejbližší zásah paprsku from -> to (senzory se ignorují); 'hit' se přepíše jen při zásahu
+    public boolean raycast(Vector2f from, Vector2f to, RaycastHit hit) {
+        syncForQuery();
+        return query.raycast(from.x, from.y, to.x, to.y, hit);
+    }
+
+    /**
+     * Všechny objekty na paprsku seřazené podle vzdálenosti, každý jednou; prázdné prvky pole
+     * se doplní instancemi, které si volající drží pro další volání.
+     *
+     * @return počet zásahů (nejvýš délka pole, vzdálenější se zahodí)
+     */
+    public int raycastAll(Vector2f from, Vector2f to, RaycastHit[] results) {
+        syncForQuery();
+        return query.raycastAll(from.x, from.y, to.x, to.y, results);
+    }
+
+    // Při threaded fyzice dotaz počká na rozběhnutý krok (svět se nesmí číst během kroku)
+    private void syncForQuery() {
+        if (threaded) awaitPending();
+    }
+
+    private void awaitPending() {
+        if (pending == null) return;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Physics step failed", e.getCause());
+        } finally {
+            pending = null;
+        }
+    }
+
+    // Dokončí rozběhnutý krok a ukončí vlákno fyziky; volá se při opuštění view
+    public void shutdown() {
+        try {
+            awaitPending();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    public int getLastSubSteps() {
+        return lastSubSteps;
+    }
+
+    // Statistiky posledního publikovaného update
+    public PhysicsStats getStats() {
+        return stats;
+    }
+
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public void setProfiling(boolean profiling) {
+        submit(() -> this.profiling = profiling);
+    }
+
+    public int getVelocityIterations() {
+        return velocityIterations;
+    }
+
+    public int getPositionIterations() {
+        return positionIterations;
+    }
+
+    // Pevný počet iterací (bez adaptivního režimu), zároveň horní mez adaptivního režimu
+    public void setIterations(int velocityIterations, int positionIterations) {
+        submit(() -> {
+            this.velocityIterations = this.maxVelocityIterations = Math.max(1, velocityIterations);
+            this.positionIterations = this.maxPositionIterations = Math.max(1, positionIterations);
+            this.minVelocityIterations = Math.min(minVelocityIterations, this.maxVelocityIterations);
+            this.minPositionIterations = Math.min(minPositionIterations, this.maxPositionIterations);
+        });
+    }
+
+    public boolean isAdaptiveIterations() {
+        return adaptiveIterations;
+    }
+
+    public void setAdaptiveIterations(boolean adaptiveIterations) {
+        submit(() -> {
+            // iterace podle naměřeného času by rozbily determinismus
+            this.adaptiveIterations = adaptiveIterations && !lockstep;
+            smoothedStepMs = -1.0f;
+            adaptCooldown = 0;
+            if (!adaptiveIterations) {
+                velocityIterations = maxVelocityIterations;
+                positionIterations = maxPositionIterations;
+            }
+        });
+    }
+
+    public float getStepBudgetMs() {
+        return stepBudgetMs;
+    }
+
+    // Meze adaptivního režimu a rozpočet na jeden krok
+    public void setAdaptiveBounds(int minVelocityIterations, int maxVelocityIterations,
+                                  int minPositionIterations, int maxPositionIterations, float stepBudgetMs) {
+        submit(() -> {
+            this.minVelocityIterations = Math.max(1, minVelocityIterations);
+            this.maxVelocityIterations = Math.max(this.minVelocityIterations, maxVelocityIterations);
+            this.minPositionIterations = Math.max(1, minPositionIterations);
+            this.maxPositionIterations = Math.max(this.minPositionIterations, maxPositionIterations);
+            this.stepBudgetMs = stepBudgetMs;
+            velocityIterations = Math.max(this.minVelocityIterations, Math.min(this.maxVelocityIterations, velocityIterations));
+            positionIterations = Math.max(this.minPositionIterations, Math.min(this.maxPositionIterations, positionIterations));
+        });
+    }
+
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(1, maxSubSteps);
+    }
+
+    public float getPhysicsTimeStep() {
+        return physicsTimeStep;
+    }
+
+    public void setPhysicsTimeStep(float physicsTimeStep) {
+        this.physicsTimeStep = physicsTimeStep;
+    }
+
+    public boolean isLockstep() {
+        return lockstep;
+    }
+
+    /**
+     * Deterministický režim pro replay a regresní běhy: každý update udělá právě jeden krok
+     * physicsTimeStep bez ohledu na dt (bez interpolace), addAll vytváří tělesa podle id objektu,
+     * adaptivní iterace jsou vypnuté a po každém kroku se spočítá hash stavu. Nastavuje se
+     * před přidáním těles.
+     */
+    public void setLockstep(boolean lockstep) {
+        this.lockstep = lockstep;
+        if (lockstep) setAdaptiveIterations(false);
+    }
+
+    // Počet kroků lockstepu a hash stavu po posledním publikovaném kroku
+    public long getTick() {
+        return publishedTick;
+    }
+
+    public long getStateHash() {
+        return publishedHash;
+    }
+
+    public PhysicsLoadStats getLoadStats() {
+        return loadStats;
+    }
+
+    public boolean isMergeStaticColliders() {
+        return mergeStaticColliders;
+    }
+
+    public void setMergeStaticColliders(boolean mergeStaticColliders) {
+        submit(() -> this.mergeStaticColliders = mergeStaticColliders);
+    }
+
+    public CollisionLayers getCollisionLayers() {
+        return collisionLayers;
+    }
+
+    // Nastavuje se před přidáním těles, existující fixtures si filtr nemění
+    public void setCollisionLayers(CollisionLayers collisionLayers) {
+        submit(() -> this.collisionLayers = collisionLayers);
+    }
+
+    /**
+     * Přefiltruje fixtures objektu podle aktuální vrstvy jeho RigidBody2D; sloučená dlaždice
+     * se ze skupiny vyjme a dostane vlastní těleso, aby vrstvu nezměnila celé skupině.
+     */
+    public void updateCollisionLayer(GameObject go) {
+        Transform transform = go.transform;
+        float x = transform.position.x, y = transform.position.y, angle = transform.rotation;
+        submit(() -> {
+            StaticColliderGroup group = tileGroups.get(go);
+            if (group != null) {
+                removeTile(go, group);
+                createBody(go, x, y, angle);
+                return;
+            }
+            RigidBody2D rb = go.getComponent(RigidBody2D.class);
+            if (rb == null || rb.getRawBody() == null) return;
+            collisionLayers.applyTo(filter, rb.getCollisionLayer());
+            for (Fixture f = rb.getRawBody().getFixtureList(); f != null; f = f.getNext()) {
+                f.setFilterData(filter);
+            }
+        });
+    }
+
+    public boolean isThreaded() {
+        return threaded;
+    }
+
+    // Přepnutí režimu dokončí případný rozběhnutý krok
+    public void setThreaded(boolean threaded) {
+        if (this.threaded && !threaded) shutdown();
+        this.threaded = threaded;
     }
 
     public void destroyGameObject(GameObject go) {
-        RigidBody2D rb = go.getComponent(RigidBody2D.class);
-        if (rb != null) {
-            if (rb.getRawBody() != null) {
+        submit(() -> {
+            StaticColliderGroup group = tileGroups.get(go);
+            if (group != null) {
+                removeTile(go, group);
+                return;
+            }
+            RigidBody2D rb = go.getComponent(RigidBody2D.class);
+            if (rb != null && rb.getRawBody() != null) {
                 world.destroyBody(rb.getRawBody());
                 rb.setRawBody(null);
             }
-        }
+            // destroyBody ukončí jeho kontakty přes ContactListener, partneři dostanou konec kolize
+            PhysicsBody entry = bodyByObject.get(go);
+            if (entry != null) unregister(entry);
+        });
     }
-}
\ No newline at end of file
+}
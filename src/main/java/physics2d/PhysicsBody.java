@@ -0,0 +1,116 @@
+package physics2d;
+
+import components.ScriptComponent;
+import engine.Component;
+import engine.GameObject;
+import org.jbox2d.dynamics.Body;
+import physics2d.components.CollisionComponent;
+import physics2d.components.RigidBody2D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Záznam tělesa v registru Physics2D: komponenty objektu nakešované při add() (žádné getComponent
+ * v kroku) a seznam partnerů podle id objektu s počtem dotýkajících se fixtures.
+ * Fixtures tělesa mají záznam jako userData, takže kontakt vede přímo k němu. Skupina sloučených
+ * statických dlaždic má rigidBody null a za gameObject svou první dlaždici.
+ */
+public class PhysicsBody {
+    final GameObject gameObject;
+    final long id;
+    final RigidBody2D rigidBody;
+    final CollisionComponent collision;
+    final ScriptComponent[] scripts;
+    Body body;
+    int index = -1;
+    // Číslo posledního dotazu, který objekt vrátil (jeden výsledek za objekt)
+    int queryStamp = 0;
+    // Číslo posledního průchodu ostrovy, který těleso navštívil
+    int islandStamp = 0;
+    // Stav před posledním krokem a po něm (x, y, úhel ×2); snapshot ho přenáší do update bez kroku
+    final float[] state = new float[6];
+    boolean hasState = false;
+
+    // Dotýkající se partneři; dvojice může mít víc kontaktů (kapsle = tři fixtures)
+    private long[] touchingIds = new long[4];
+    private PhysicsBody[] touching = new PhysicsBody[4];
+    private int[] contactCounts = new int[4];
+    private int touchingCount = 0;
+
+    PhysicsBody(GameObject gameObject, RigidBody2D rigidBody, Body body) {
+        this.gameObject = gameObject;
+        this.id = gameObject.getId();
+        this.rigidBody = rigidBody;
+        this.body = body;
+        this.collision = gameObject.getComponent(CollisionComponent.class);
+
+        List<ScriptComponent> found = new ArrayList<>();
+        for (Component c : gameObject.getAllScripts()) {
+            found.add((ScriptComponent) c);
+        }
+        this.scripts = found.toArray(new ScriptComponent[0]);
+    }
+
+    /**
+     * Započítá kontakt s 'other'.
+     *
+     * @return true, pokud je to první kontakt dvojice (začátek kolize)
+     */
+    boolean addContact(PhysicsBody other) {
+        int i = find(other.id);
+        if (i != -1) {
+            contactCounts[i]++;
+            return false;
+        }
+        if (touchingCount == touching.length) grow();
+        touchingIds[touchingCount] = other.id;
+        touching[touchingCount] = other;
+        contactCounts[touchingCount] = 1;
+        touchingCount++;
+        return true;
+    }
+
+    /**
+     * Odečte kontakt s 'other'.
+     *
+     * @return true, pokud to byl poslední kontakt dvojice (konec kolize)
+     */
+    boolean removeContact(PhysicsBody other) {
+        int i = find(other.id);
+        if (i == -1 || --contactCounts[i] > 0) return false;
+
+        int last = --touchingCount;
+        touchingIds[i] = touchingIds[last];
+        touching[i] = touching[last];
+        contactCounts[i] = contactCounts[last];
+        touching[last] = null;
+        return true;
+    }
+
+    private int find(long otherId) {
+        for (int i = 0; i < touchingCount; i++) {
+            if (touchingIds[i] == otherId) return i;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int n = touching.length * 2;
+        long[] newIds = new long[n];
+        System.arraycopy(touchingIds, 0, newIds, 0, touchingCount);
+        PhysicsBody[] newTouching = new PhysicsBody[n];
+        System.arraycopy(touching, 0, newTouching, 0, touchingCount);
+        int[] newCounts = new int[n];
+        System.arraycopy(contactCounts, 0, newCounts, 0, touchingCount);
+        touchingIds = newIds;
+        touching = newTouching;
+        contactCounts = newCounts;
+    }
+
+    public GameObject getGameObject() { return gameObject; }
+    public RigidBody2D getRigidBody() { return rigidBody; }
+    public CollisionComponent getCollision() { return collision; }
+    public Body getBody() { return body; }
+    public long getId() { return id; }
+}
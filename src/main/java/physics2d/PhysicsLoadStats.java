@@ -0,0 +1,40 @@
+package physics2d;
+
+// Statistiky posledního hromadného přidání těles (Physics2D.addAll)
+public class PhysicsLoadStats {
+
+    private int objects;
+    private int bodies;
+    private int fixtures;
+    private int mergedTiles;
+    private int mergedShapes;
+    private long nanos;
+
+    void reset() {
+        objects = bodies = fixtures = mergedTiles = mergedShapes = 0;
+        nanos = 0;
+    }
+
+    void addObjects(int count) { objects += count; }
+    void addBody() { bodies++; }
+    void addFixture() { fixtures++; }
+    void addMerged(int tiles, int shapes) {
+        mergedTiles += tiles;
+        mergedShapes += shapes;
+    }
+    void setNanos(long nanos) { this.nanos = nanos; }
+
+    public int getObjects() { return objects; }
+    public int getBodies() { return bodies; }
+    public int getFixtures() { return fixtures; }
+    // Statické dlaždice sloučené do společných těles a počet tvarů, které z nich vznikly
+    public int getMergedTiles() { return mergedTiles; }
+    public int getMergedShapes() { return mergedShapes; }
+    public float getTimeMs() { return nanos / 1_000_000.0f; }
+
+    @Override
+    public String toString() {
+        return String.format("Physics load: %d objects -> %d bodies, %d fixtures (%d tiles merged into %d shapes) in %.2f ms",
+                objects, bodies, fixtures, mergedTiles, mergedShapes, getTimeMs());
+    }
+}
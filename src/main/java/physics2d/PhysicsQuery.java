@@ -0,0 +1,175 @@
+package physics2d;
+
+import engine.GameObject;
+import org.jbox2d.callbacks.QueryCallback;
+import org.jbox2d.callbacks.RayCastCallback;
+import org.jbox2d.collision.AABB;
+import org.jbox2d.collision.Collision;
+import org.jbox2d.collision.shapes.CircleShape;
+import org.jbox2d.collision.shapes.Shape;
+import org.jbox2d.common.Transform;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.World;
+
+/**
+ * Dotazy nad broadphase světa pro Physics2D. Callbacky i pomocné tvary jsou pole třídy, takže
+ * dotaz nic nealokuje; výsledky jdou do bufferů volajícího. Objekt s více fixtures se vrací jednou
+ * (PhysicsBody.queryStamp).
+ */
+class PhysicsQuery implements QueryCallback, RayCastCallback {
+    private static final int MODE_AABB = 0;
+    private static final int MODE_CIRCLE = 1;
+    private static final int MODE_RAY_CLOSEST = 2;
+    private static final int MODE_RAY_ALL = 3;
+
+    private final World world;
+    private final Collision collision;
+
+    private final AABB aabb = new AABB();
+    private final Vec2 from = new Vec2();
+    private final Vec2 to = new Vec2();
+    private final CircleShape circle = new CircleShape();
+    private final Transform circleTransform = new Transform();
+
+    private int mode;
+    private int stamp = 0;
+    private GameObject[] objects;
+    private RaycastHit[] hits;
+    private RaycastHit closest;
+    private int count;
+
+    PhysicsQuery(World world) {
+        this.world = world;
+        this.collision = new Collision(world.getPool());
+        this.circleTransform.setIdentity();
+    }
+
+    int queryAABB(float minX, float minY, float maxX, float maxY, GameObject[] results) {
+        mode = MODE_AABB;
+        return runAABB(minX, minY, maxX, maxY, results);
+    }
+
+    int overlapCircle(float cx, float cy, float radius, GameObject[] results) {
+        mode = MODE_CIRCLE;
+        circle.m_radius = radius;
+        circle.m_p.setZero();
+        circleTransform.p.set(cx, cy);
+        return runAABB(cx - radius, cy - radius, cx + radius, cy + radius, results);
+    }
+
+    private int runAABB(float minX, float minY, float maxX, float maxY, GameObject[] results) {
+        if (results.length == 0) return 0;
+        objects = results;
+        count = 0;
+        stamp++;
+        aabb.lowerBound.set(minX, minY);
+        aabb.upperBound.set(maxX, maxY);
+        world.queryAABB(this, aabb);
+        objects = null;
+        return count;
+    }
+
+    boolean raycast(float x1, float y1, float x2, float y2, RaycastHit hit) {
+        mode = MODE_RAY_CLOSEST;
+        closest = hit;
+        boolean found = runRay(x1, y1, x2, y2) > 0;
+        closest = null;
+        return found;
+    }
+
+    int raycastAll(float x1, float y1, float x2, float y2, RaycastHit[] results) {
+        if (results.length == 0) return 0;
+        mode = MODE_RAY_ALL;
+        hits = results;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) results[i] = new RaycastHit();
+        }
+        int n = runRay(x1, y1, x2, y2);
+        hits = null;
+        return n;
+    }
+
+    private int runRay(float x1, float y1, float x2, float y2) {
+        count = 0;
+        // nulová délka paprsku by v JBox2D neprošla assertem
+        if (x1 == x2 && y1 == y2) return 0;
+        from.set(x1, y1);
+        to.set(x2, y2);
+        world.raycast(this, from, to);
+        return count;
+    }
+
+    // AABB a kruh
+    @Override
+    public boolean reportFixture(Fixture fixture) {
+        PhysicsBody body = (PhysicsBody) fixture.getUserData();
+        if (body == null || body.queryStamp == stamp) return true;
+
+        if (mode == MODE_CIRCLE && !overlapsCircle(fixture)) return true;
+
+        body.queryStamp = stamp;
+        objects[count++] = body.gameObject;
+        // plný buffer = konec dotazu
+        return count < objects.length;
+    }
+
+    private boolean overlapsCircle(Fixture fixture) {
+        Shape shape = fixture.getShape();
+        Transform xf = fixture.getBody().getTransform();
+        for (int child = 0; child < shape.getChildCount(); child++) {
+            if (collision.testOverlap(shape, child, circle, 0, xf, circleTransform)) return true;
+        }
+        return false;
+    }
+
+    // Paprsky; senzory paprsek neblokují ani nehlásí
+    @Override
+    public float reportFixture(Fixture fixture, Vec2 point, Vec2 normal, float fraction) {
+        PhysicsBody body = (PhysicsBody) fixture.getUserData();
+        if (body == null || fixture.isSensor()) return -1;
+
+        if (mode == MODE_RAY_CLOSEST) {
+            closest.set(body.gameObject, point.x, point.y, normal.x, normal.y, fraction);
+            count = 1;
+            // zkrátí paprsek, dál se hledá jen bližší zásah
+            return fraction;
+        }
+
+        insertHit(body.gameObject, point, normal, fraction);
+        return 1;
+    }
+
+    /**
+     * Zařadí zásah do 'hits' seřazených podle fraction; objekt je v poli jen jednou (nejbližší
+     * zásah) a při plném bufferu vypadne nejvzdálenější.
+     */
+    private void insertHit(GameObject go, Vec2 point, Vec2 normal, float fraction) {
+        int existing = -1;
+        for (int i = 0; i < count; i++) {
+            if (hits[i].gameObject == go) {
+                existing = i;
+                break;
+            }
+        }
+        if (existing != -1) {
+            if (hits[existing].fraction <= fraction) return;
+            // odebere starší zásah a zařadí nový znovu
+            RaycastHit removed = hits[existing];
+            System.arraycopy(hits, existing + 1, hits, existing, count - existing - 1);
+            hits[--count] = removed;
+        }
+
+        int pos = count;
+        while (pos > 0 && hits[pos - 1].fraction > fraction) pos--;
+        if (pos >= hits.length) return;
+
+        // poslední instance se recykluje pro nový zásah
+        int last = Math.min(count, hits.length - 1);
+        RaycastHit slot = hits[last];
+        System.arraycopy(hits, pos, hits, pos + 1, last - pos);
+        hits[pos] = slot;
+        slot.set(go, point.x, point.y, normal.x, normal.y, fraction);
+        if (count < hits.length) count++;
+    }
+}
@@ -0,0 +1,132 @@
+package physics2d;
+
+import org.jbox2d.dynamics.Body;
+
+/**
+ * Výsledek jednoho update fyziky: transformy těles před posledním krokem a po něm, alpha pro
+ * interpolaci a události kolizí. Plní ho vlákno fyziky (nebo hlavní vlákno v synchronním režimu),
+ * čte ho jen hlavní vlákno po publikování; dva snapshoty se střídají (double buffer).
+ */
+public class PhysicsSnapshot {
+    private static final int STATE_SIZE = 3; // x, y, úhel
+
+    private PhysicsBody[] bodies = new PhysicsBody[64];
+    private float[] previous = new float[64 * STATE_SIZE];
+    private float[] current = new float[64 * STATE_SIZE];
+    private int count = 0;
+
+    private float alpha = 0.0f;
+    private int steps = 0;
+    // Události se nealokují pro každý krok, pole instancí jen roste
+    private CollisionEvent[] events = new CollisionEvent[16];
+    private int eventCount = 0;
+
+    private final PhysicsStats stats = new PhysicsStats();
+    // Jen v lockstepu
+    private long tick = 0;
+    private long hash = 0;
+
+    // Kopie registru těles; během kroků se nemění (příkazy se provádějí před nimi)
+    void begin(PhysicsBody[] registry, int registryCount) {
+        steps = 0;
+        while (bodies.length < registryCount) grow();
+        System.arraycopy(registry, 0, bodies, 0, registryCount);
+        for (int i = registryCount; i < count; i++) bodies[i] = null;
+        count = registryCount;
+    }
+
+    void beforeStep() {
+        capture(previous);
+        steps++;
+    }
+
+    /**
+     * Uzavře update: po krocích zachytí aktuální stav a uloží dvojici do záznamu tělesa.
+     * Update bez kroku (render rychlejší než fyzika) přenese poslední krokovanou dvojici
+     * a změní jen alphu, jinak by se těleso vykreslilo v novějším stavu a pak skočilo zpět.
+     */
+    void end(float alpha) {
+        if (steps > 0) capture(current);
+        for (int i = 0; i < count; i++) {
+            PhysicsBody entry = bodies[i];
+            int o = i * STATE_SIZE;
+            if (steps > 0) {
+                System.arraycopy(previous, o, entry.state, 0, STATE_SIZE);
+                System.arraycopy(current, o, entry.state, STATE_SIZE, STATE_SIZE);
+                entry.hasState = true;
+            } else if (entry.hasState) {
+                System.arraycopy(entry.state, 0, previous, o, STATE_SIZE);
+                System.arraycopy(entry.state, STATE_SIZE, current, o, STATE_SIZE);
+            } else {
+                // nové těleso, které ještě nekrokovalo, stojí na místě
+                captureBody(i, previous);
+                captureBody(i, current);
+            }
+        }
+        this.alpha = alpha;
+    }
+
+    private void capture(float[] target) {
+        for (int i = 0; i < count; i++) captureBody(i, target);
+    }
+
+    private void captureBody(int i, float[] target) {
+        Body b = bodies[i].body;
+        int o = i * STATE_SIZE;
+        target[o] = b.getPosition().x;
+        target[o + 1] = b.getPosition().y;
+        target[o + 2] = b.getAngle();
+    }
+
+    // Události se sbírají i mimo update (příkazy v synchronním režimu), mažou se až po publikování
+    void clearEvents() {
+        for (int i = 0; i < eventCount; i++) events[i].set(null, null, false);
+        eventCount = 0;
+    }
+
+    void addEvent(PhysicsBody self, PhysicsBody other, boolean enter) {
+        if (eventCount == events.length) {
+            CollisionEvent[] newEvents = new CollisionEvent[eventCount * 2];
+            System.arraycopy(events, 0, newEvents, 0, eventCount);
+            events = newEvents;
+        }
+        CollisionEvent event = events[eventCount];
+        if (event == null) event = events[eventCount] = new CollisionEvent();
+        event.set(self, other, enter);
+        eventCount++;
+    }
+
+    // Zapíše stavy do komponent; volá se na hlavním vlákně
+    void apply() {
+        for (int i = 0; i < count; i++) {
+            // sloučené statické dlaždice nemají vlastní RigidBody2D stav
+            if (bodies[i].rigidBody == null) continue;
+            int o = i * STATE_SIZE;
+            bodies[i].rigidBody.setState(
+                    previous[o], previous[o + 1], previous[o + 2],
+                    current[o], current[o + 1], current[o + 2]);
+        }
+    }
+
+    private void grow() {
+        int n = bodies.length * 2;
+        // volá se jen z begin(), stavy se pak zapisují znovu
+        bodies = new PhysicsBody[n];
+        previous = new float[n * STATE_SIZE];
+        current = new float[n * STATE_SIZE];
+    }
+
+    public float getAlpha() { return alpha; }
+    public int getSteps() { return steps; }
+    public int getCount() { return count; }
+    void setHash(long tick, long hash) {
+        this.tick = tick;
+        this.hash = hash;
+    }
+
+    public PhysicsStats getStats() { return stats; }
+    public long getTick() { return tick; }
+    public long getHash() { return hash; }
+    public int getEventCount() { return eventCount; }
+    public CollisionEvent getEvent(int i) { return events[i]; }
+}
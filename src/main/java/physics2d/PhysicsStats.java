@@ -0,0 +1,52 @@
+package physics2d;
+
+// Telemetrie jednoho update fyziky; plní ji simulace do snapshotu, čte se po publikování
+public class PhysicsStats {
+
+    private int steps;
+    private long stepNanos;
+    private float solveMs;
+    private int velocityIterations;
+    private int positionIterations;
+
+    // Jen se zapnutým profilováním (Physics2D.setProfiling)
+    private int bodies;
+    private int awakeBodies;
+    private int contacts;
+    private int islands;
+
+    void reset(int velocityIterations, int positionIterations) {
+        steps = 0;
+        stepNanos = 0;
+        solveMs = 0.0f;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        bodies = awakeBodies = contacts = islands = 0;
+    }
+
+    void addStep(long nanos, float solveMs) {
+        steps++;
+        stepNanos += nanos;
+        this.solveMs += solveMs;
+    }
+
+    void setCounts(int bodies, int awakeBodies, int contacts, int islands) {
+        this.bodies = bodies;
+        this.awakeBodies = awakeBodies;
+        this.contacts = contacts;
+        this.islands = islands;
+    }
+
+    public int getSteps() { return steps; }
+    // Čas všech world.step v tomto update
+    public float getStepTimeMs() { return stepNanos / 1_000_000.0f; }
+    public float getAverageStepTimeMs() { return steps > 0 ? getStepTimeMs() / steps : 0.0f; }
+    // Z toho řešič (JBox2D Profile.solve)
+    public float getSolveTimeMs() { return solveMs; }
+    public int getVelocityIterations() { return velocityIterations; }
+    public int getPositionIterations() { return positionIterations; }
+    public int getBodies() { return bodies; }
+    public int getAwakeBodies() { return awakeBodies; }
+    public int getContacts() { return contacts; }
+    public int getIslands() { return islands; }
+}
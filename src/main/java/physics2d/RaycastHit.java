@@ -0,0 +1,20 @@
+package physics2d;
+
+import engine.GameObject;
+import org.joml.Vector2f;
+
+// Výsledek raycastu; instance dodává volající a Physics2D ji jen přepisuje
+public class RaycastHit {
+    public GameObject gameObject;
+    public final Vector2f point = new Vector2f();
+    public final Vector2f normal = new Vector2f();
+    // Poměr vzdálenosti zásahu k délce paprsku (0..1)
+    public float fraction;
+
+    void set(GameObject gameObject, float px, float py, float nx, float ny, float fraction) {
+        this.gameObject = gameObject;
+        this.point.set(px, py);
+        this.normal.set(nx, ny);
+        this.fraction = fraction;
+    }
+}
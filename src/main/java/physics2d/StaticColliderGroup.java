@@ -0,0 +1,130 @@
+package physics2d;
+
+import engine.GameObject;
+import org.jbox2d.collision.shapes.ChainShape;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.FixtureDef;
+import physics2d.components.Box2DCollider;
+import physics2d.components.RigidBody2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Statické box dlaždice se stejným materiálem, z-indexem a kolizní vrstvou sloučené do jednoho
+ * statického tělesa. Fixtures jsou obrysy sjednocených dlaždic jako ChainShape loopy; souvislá
+ * plocha je jeden loop, takže na spojích dlaždic nejsou vnitřní hrany, o které by se tělesa
+ * zasekávala. Kontakty se sloučenými dlaždicemi hlásí první dlaždici skupiny (podle pozice).
+ * Po odebrání dlaždice se fixtures skupiny postaví znovu.
+ */
+class StaticColliderGroup {
+    private static final float EPSILON = TileOutline.EPSILON;
+
+    final int zIndex;
+    final float friction;
+    final float restitution;
+    final float density;
+    final String collisionLayer;
+
+    private final List<GameObject> tiles = new ArrayList<>();
+    Body body;
+    PhysicsBody entry;
+
+    StaticColliderGroup(int zIndex, RigidBody2D rb) {
+        this.zIndex = zIndex;
+        this.friction = rb.getFriction();
+        this.restitution = rb.getRestitution();
+        this.density = rb.getDensity();
+        this.collisionLayer = rb.getCollisionLayer();
+    }
+
+    boolean matches(int zIndex, RigidBody2D rb) {
+        return this.zIndex == zIndex && friction == rb.getFriction()
+                && restitution == rb.getRestitution() && density == rb.getDensity()
+                && Objects.equals(collisionLayer, rb.getCollisionLayer());
+    }
+
+    void add(GameObject tile) {
+        tiles.add(tile);
+    }
+
+    boolean remove(GameObject tile) {
+        return tiles.remove(tile);
+    }
+
+    boolean isEmpty() {
+        return tiles.isEmpty();
+    }
+
+    List<GameObject> getTiles() {
+        return tiles;
+    }
+
+    // Světový obdélník dlaždice: minX, minY, maxX, maxY
+    static void bounds(GameObject tile, float[] out, int o) {
+        Box2DCollider bc = tile.getComponent(Box2DCollider.class);
+        // halfSize je ve skutečnosti celá velikost boxu (Physics2D ji při stavbě půlí)
+        float hx = bc.getHalfSize().x * 0.5f, hy = bc.getHalfSize().y * 0.5f;
+        float cx = tile.transform.position.x + bc.getOffset().x;
+        float cy = tile.transform.position.y + bc.getOffset().y;
+        out[o] = cx - hx;
+        out[o + 1] = cy - hy;
+        out[o + 2] = cx + hx;
+        out[o + 3] = cy + hy;
+    }
+
+    /**
+     * Postaví fixtures na 'body': sjednocení dlaždic (TileOutline) dá obrysy, každý obrys je jeden
+     * ChainShape loop; vrátí počet vytvořených tvarů.
+     */
+    int build(FixtureDef fixtureDef, CollisionLayers layers) {
+        for (Fixture f = body.getFixtureList(); f != null; ) {
+            Fixture next = f.getNext();
+            body.destroyFixture(f);
+            f = next;
+        }
+
+        int n = tiles.size();
+        float[] rects = new float[n * 4];
+        for (int i = 0; i < n; i++) bounds(tiles.get(i), rects, i * 4);
+
+        fixtureDef.density = density;
+        fixtureDef.friction = friction;
+        fixtureDef.restitution = restitution;
+        fixtureDef.isSensor = false;
+        layers.applyTo(fixtureDef.filter, collisionLayer);
+        int shapes = 0;
+        for (float[] loop : TileOutline.trace(rects, n)) {
+            Vec2[] vertices = new Vec2[loop.length / 2];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = new Vec2(loop[i * 2], loop[i * 2 + 1]);
+            }
+            ChainShape chain = new ChainShape();
+            chain.createLoop(vertices, vertices.length);
+            fixtureDef.shape = chain;
+            body.createFixture(fixtureDef);
+            shapes++;
+        }
+        return shapes;
+    }
+
+    // Dlaždice, za kterou skupina vystupuje v kontaktech (nejnižší řádek, nejvíc vlevo)
+    GameObject representative() {
+        GameObject best = null;
+        float bestY = 0, bestX = 0;
+        float[] r = new float[4];
+        for (GameObject tile : tiles) {
+            bounds(tile, r, 0);
+            if (best == null || r[1] < bestY - EPSILON
+                    || (Math.abs(r[1] - bestY) <= EPSILON && (r[0] < bestX || (r[0] == bestX && tile.getId() < best.getId())))) {
+                best = tile;
+                bestY = r[1];
+                bestX = r[0];
+            }
+        }
+        return best;
+    }
+}
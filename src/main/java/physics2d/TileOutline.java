@@ -0,0 +1,198 @@
+package physics2d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sjednocení osově zarovnaných obdélníků do obrysů (vnější obrysy proti směru hodinových ručiček,
+ * díry po směru). Obdélníky se rozdělí na shluky, které se dotýkají; každý shluk se převede na
+ * mřížku z jeho vlastních souřadnic (komprese), hranice vyplněných buněk se projdou do smyček
+ * a rovné úseky se spojí. Výsledek závisí jen na geometrii, ne na pořadí vstupu.
+ */
+public class TileOutline {
+    public static final float EPSILON = 1e-4f;
+
+    // Směry hran: +x, +y, -x, -y (otočení doleva = +1)
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+
+    /**
+     * @param rects minX, minY, maxX, maxY pro každý obdélník
+     * @return smyčky jako pole [x0, y0, x1, y1, ...] bez opakování prvního bodu
+     */
+    public static List<float[]> trace(float[] rects, int count) {
+        List<float[]> loops = new ArrayList<>();
+        for (int[] cluster : clusters(rects, count)) {
+            traceCluster(rects, cluster, loops);
+        }
+        return loops;
+    }
+
+    // Shluky dotýkajících se obdélníků (sweep podle minX + union-find), seřazené podle nejnižšího rohu
+    private static List<int[]> clusters(float[] rects, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int c = Float.compare(rects[a * 4], rects[b * 4]);
+            if (c != 0) return c;
+            c = Float.compare(rects[a * 4 + 1], rects[b * 4 + 1]);
+            if (c != 0) return c;
+            c = Float.compare(rects[a * 4 + 2], rects[b * 4 + 2]);
+            return c != 0 ? c : Float.compare(rects[a * 4 + 3], rects[b * 4 + 3]);
+        });
+
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) parent[i] = i;
+
+        int[] active = new int[count];
+        int activeCount = 0;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int j = active[a];
+                // obdélníky končící před začátkem tohoto už nic nepotkají
+                if (rects[j * 4 + 2] < rects[i * 4] - EPSILON) continue;
+                active[kept++] = j;
+                if (rects[j * 4 + 1] <= rects[i * 4 + 3] + EPSILON && rects[i * 4 + 1] <= rects[j * 4 + 3] + EPSILON) {
+                    union(parent, i, j);
+                }
+            }
+            activeCount = kept;
+            active[activeCount++] = i;
+        }
+
+        // členové shluků v pořadí 'order', shluky podle prvního člena
+        int[] clusterOf = new int[count];
+        Arrays.fill(clusterOf, -1);
+        List<int[]> result = new ArrayList<>();
+        int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) sizes[find(parent, i)]++;
+        int[] fill = new int[count];
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            int root = find(parent, i);
+            if (clusterOf[root] == -1) {
+                clusterOf[root] = result.size();
+                result.add(new int[sizes[root]]);
+            }
+            result.get(clusterOf[root])[fill[root]++] = i;
+        }
+        return result;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a), rb = find(parent, b);
+        // menší index jako kořen, aby výsledek nezávisel na pořadí spojování
+        if (ra < rb) parent[rb] = ra;
+        else if (rb < ra) parent[ra] = rb;
+    }
+
+    private static void traceCluster(float[] rects, int[] cluster, List<float[]> loops) {
+        float[] xs = coordinates(rects, cluster, 0);
+        float[] ys = coordinates(rects, cluster, 1);
+        int nx = xs.length - 1, ny = ys.length - 1;
+
+        // obsazené buňky komprimované mřížky
+        boolean[] filled = new boolean[nx * ny];
+        for (int r : cluster) {
+            int x0 = index(xs, rects[r * 4]), x1 = index(xs, rects[r * 4 + 2]);
+            int y0 = index(ys, rects[r * 4 + 1]), y1 = index(ys, rects[r * 4 + 3]);
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) filled[y * nx + x] = true;
+            }
+        }
+
+        // hranice: hrany s plnou buňkou vlevo, uložené jako bity směrů ve výchozím vrcholu
+        int vw = nx + 1;
+        int[] out = new int[vw * (ny + 1)];
+        int edges = 0;
+        for (int y = 0; y < ny; y++) {
+            for (int x = 0; x < nx; x++) {
+                if (!filled[y * nx + x]) continue;
+                if (y == 0 || !filled[(y - 1) * nx + x]) { out[y * vw + x] |= 1; edges++; }
+                if (x == nx - 1 || !filled[y * nx + x + 1]) { out[y * vw + x + 1] |= 1 << 1; edges++; }
+                if (y == ny - 1 || !filled[(y + 1) * nx + x]) { out[(y + 1) * vw + x + 1] |= 1 << 2; edges++; }
+                if (x == 0 || !filled[y * nx + x - 1]) { out[(y + 1) * vw + x] |= 1 << 3; edges++; }
+            }
+        }
+
+        // smyčky od nejnižšího (pak nejlevějšího) vrcholu s nepoužitou hranou
+        float[] points = new float[16];
+        for (int start = 0; start < out.length && edges > 0; start++) {
+            if (out[start] == 0) continue;
+
+            int n = 0;
+            int v = start;
+            int dir = -1;
+            int firstDir = -1;
+            do {
+                int next = chooseDirection(out[v], dir);
+                out[v] &= ~(1 << next);
+                edges--;
+                if (next != dir) {
+                    // roh: změna směru
+                    if (n + 2 > points.length) points = Arrays.copyOf(points, points.length * 2);
+                    points[n++] = xs[v % vw];
+                    points[n++] = ys[v / vw];
+                    if (firstDir == -1) firstDir = next;
+                }
+                dir = next;
+                v += DY[dir] * vw + DX[dir];
+            } while (v != start);
+
+            // start uprostřed rovného úseku není roh
+            if (dir == firstDir && n > 2) {
+                float[] loop = Arrays.copyOfRange(points, 2, n);
+                if (loop.length >= 6) loops.add(loop);
+            } else if (n >= 6) {
+                loops.add(Arrays.copyOf(points, n));
+            }
+        }
+    }
+
+    // Při dvou možnostech (buňky dotýkající se rohem) se zatáčí doleva, takže se neslijí
+    private static int chooseDirection(int mask, int incoming) {
+        if (incoming == -1) {
+            for (int d = 0; d < 4; d++) if ((mask & (1 << d)) != 0) return d;
+        }
+        int[] preference = {(incoming + 1) & 3, incoming, (incoming + 3) & 3};
+        for (int d : preference) if ((mask & (1 << d)) != 0) return d;
+        // obrat o 180° u hranice nenastane
+        return (incoming + 2) & 3;
+    }
+
+    // Seřazené souřadnice shluku (axis 0 = x, 1 = y), hodnoty bližší než EPSILON jsou jedna
+    private static float[] coordinates(float[] rects, int[] cluster, int axis) {
+        float[] values = new float[cluster.length * 2];
+        for (int i = 0; i < cluster.length; i++) {
+            values[i * 2] = rects[cluster[i] * 4 + axis];
+            values[i * 2 + 1] = rects[cluster[i] * 4 + 2 + axis];
+        }
+        Arrays.sort(values);
+        int n = 0;
+        for (float value : values) {
+            if (n == 0 || value - values[n - 1] > EPSILON) values[n++] = value;
+        }
+        return Arrays.copyOf(values, n);
+    }
+
+    private static int index(float[] coords, float value) {
+        int i = Arrays.binarySearch(coords, value);
+        if (i >= 0) return i;
+        // hodnota sloučená v rámci EPSILON s nejbližší souřadnicí
+        int insert = -i - 1;
+        if (insert == 0) return 0;
+        if (insert == coords.length) return coords.length - 1;
+        return value - coords[insert - 1] <= coords[insert] - value ? insert - 1 : insert;
+    }
+}
@@ -4,7 +4,7 @@ import actions.ComponentValueChangeAction;
 import engine.Window;
 import imgui.ImGui;
 import org.joml.Vector2f;
-import org.joml.Vector4f;
+import render.DebugDraw;
 import render.Renderer;
 
 public class Box2DCollider extends Collider {
@@ -25,7 +25,7 @@ public class Box2DCollider extends Collider {
     public void update(float dt) {
         Vector2f center = new Vector2f(this.gameObject.transform.position).add(this.getOffset());
         if (!Window.getView().isGame)
-            Renderer.addBox2D(center, this.halfSize, this.gameObject.transform.rotation, new Vector4f(1,1,1,1));
+            Renderer.getDebugDraw().addBox2D(center, this.halfSize, this.gameObject.transform.rotation, DebugDraw.WHITE);
     }
 
 
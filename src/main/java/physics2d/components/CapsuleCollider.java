@@ -5,7 +5,7 @@ import engine.Component;
 import engine.Window;
 import imgui.ImGui;
 import org.joml.Vector2f;
-import org.joml.Vector4f;
+import render.DebugDraw;
 import render.Renderer;
 
 public class CapsuleCollider extends Collider {
@@ -40,12 +40,12 @@ public class CapsuleCollider extends Collider {
         Vector2f center = new Vector2f(this.gameObject.transform.position)
                 .add(this.getOffset());
 
-        Renderer.drawCapsule(
+        Renderer.getDebugDraw().addCapsule(
                 center,
                 radius,
                 height,
                 this.gameObject.transform.rotation,
-                new Vector4f(1, 1, 1, 1),
+                DebugDraw.WHITE,
                 32
         );
     }
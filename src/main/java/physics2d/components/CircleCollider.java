@@ -4,7 +4,7 @@ import actions.ComponentValueChangeAction;
 import engine.Window;
 import imgui.ImGui;
 import org.joml.Vector2f;
-import org.joml.Vector4f;
+import render.DebugDraw;
 import render.Renderer;
 
 public class CircleCollider extends Collider {
@@ -24,7 +24,7 @@ public class CircleCollider extends Collider {
     public void update(float dt) {
         Vector2f center = new Vector2f(this.gameObject.transform.position).add(this.getOffset());
         if (!Window.getView().isGame)
-            Renderer.drawCircle(center, radius, new Vector4f(1,1,1,1), 32);
+            Renderer.getDebugDraw().addCircle(center, radius, DebugDraw.WHITE, 32);
 
     }
 
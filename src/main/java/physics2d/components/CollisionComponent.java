@@ -10,31 +10,39 @@ import java.util.Set;
 public class CollisionComponent extends Component {
 
     private final Set<GameObject> touching = new HashSet<>();
-    private final Set<GameObject> previousTouching = new HashSet<>();
+    // Začátky a konce kolizí z posledního update fyziky; plní je Physics2D, sady se znovu používají
+    private final Set<GameObject> entered = new HashSet<>();
+    private final Set<GameObject> exited = new HashSet<>();
+    // Pohledy jen pro čtení, vytvořené jednou
+    private final Set<GameObject> touchingView = Collections.unmodifiableSet(touching);
+    private final Set<GameObject> enteredView = Collections.unmodifiableSet(entered);
+    private final Set<GameObject> exitedView = Collections.unmodifiableSet(exited);
 
     public void begin(GameObject other) {
         touching.add(other);
+        entered.add(other);
     }
 
     public void end(GameObject other) {
         touching.remove(other);
-    }
-
-    public void sync() {
-        previousTouching.clear();
-        previousTouching.addAll(touching);
+        exited.add(other);
     }
 
     public Set<GameObject> getEntered() {
-        Set<GameObject> entered = new HashSet<>(touching);
-        entered.removeAll(previousTouching);
-        return entered;
+        return enteredView;
     }
 
     public Set<GameObject> getExited() {
-        Set<GameObject> exited = new HashSet<>(previousTouching);
-        exited.removeAll(touching);
-        return exited;
+        return exitedView;
+    }
+
+    public boolean hasEvents() {
+        return !entered.isEmpty() || !exited.isEmpty();
+    }
+
+    public void clearEvents() {
+        entered.clear();
+        exited.clear();
     }
 
     public boolean isTouching(GameObject other) {
@@ -42,7 +50,10 @@ public class CollisionComponent extends Component {
     }
 
     public boolean isTouching(String name) {
-        return touching.stream().anyMatch(go -> go.getName().equals(name));
+        for (GameObject go : touching) {
+            if (go.getName().equals(name)) return true;
+        }
+        return false;
     }
 
     public boolean isColliding() {
@@ -50,13 +61,14 @@ public class CollisionComponent extends Component {
     }
 
     public Set<GameObject> getAllTouching() {
-        return Collections.unmodifiableSet(touching);
+        return touchingView;
     }
 
     public void clear() {
         touching.clear();
+        clearEvents();
     }
 
     @Override
     public void update(float dt) {}
-}
\ No newline at end of file
+}
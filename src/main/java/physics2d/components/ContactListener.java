@@ -1,12 +1,20 @@
 package physics2d.components;
 
-import engine.GameObject;
 import org.jbox2d.callbacks.ContactImpulse;
 import org.jbox2d.collision.Manifold;
 import org.jbox2d.dynamics.contacts.Contact;
+import physics2d.Physics2D;
+import physics2d.PhysicsBody;
 
+// Registrovaný listener světa: začátek/konec dotyku fixtures předá Physics2D (běží uvnitř kroku)
 public class ContactListener implements org.jbox2d.callbacks.ContactListener {
 
+    private final Physics2D physics;
+
+    public ContactListener(Physics2D physics) {
+        this.physics = physics;
+    }
+
     @Override
     public void beginContact(Contact contact) {
         handle(contact, true);
@@ -25,26 +33,12 @@ public class ContactListener implements org.jbox2d.callbacks.ContactListener {
 
     private void handle(Contact contact, boolean begin) {
 
-        GameObject a = (GameObject) contact.getFixtureA().getBody().getUserData();
-        GameObject b = (GameObject) contact.getFixtureB().getBody().getUserData();
-
-        if (a == null || b == null) return;
-
-        notify(a, b, begin);
-        notify(b, a, begin);
-    }
-
-    private void notify(GameObject self, GameObject other, boolean begin) {
+        PhysicsBody a = (PhysicsBody) contact.getFixtureA().getUserData();
+        PhysicsBody b = (PhysicsBody) contact.getFixtureB().getUserData();
 
-        CollisionComponent cc = self.getComponent(CollisionComponent.class);
-        if (cc != null) {
-            if (begin) cc.begin(other);
-            else cc.end(other);
-        }
+        if (a == null || b == null || a == b) return;
 
-        self.getAllScriptInstances().forEach(script -> {
-            if (begin) script.onCollisionEnter(other);
-            else script.onCollisionExit(other);
-        });
+        if (begin) physics.contactBegan(a, b);
+        else physics.contactEnded(a, b);
     }
-}
\ No newline at end of file
+}
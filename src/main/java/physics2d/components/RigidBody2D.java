@@ -5,10 +5,14 @@ import engine.Window;
 import imgui.ImGui;
 import imgui.type.ImBoolean;
 import imgui.type.ImInt;
+import org.jbox2d.common.Vec2;
 import org.jbox2d.dynamics.Body;
 import org.joml.Vector2f;
+import physics2d.CollisionLayers;
 import physics2d.enums.BodyType;
 import actions.ComponentValueChangeAction;
+import project.Project;
+import project.ProjectManager;
 
 public class RigidBody2D extends Component {
     private Vector2f velocity = new Vector2f();
@@ -20,7 +24,13 @@ public class RigidBody2D extends Component {
     private boolean fixedRotation = false;
     private boolean continuousCollision = true;
 
-    private transient Body rawBody = null;
+    // Zapisuje vlákno fyziky (createBody/destroy), čte i hlavní vlákno
+    private transient volatile Body rawBody = null;
+
+    // Stav tělesa před posledním krokem fyziky a po něm (ze snapshotu), vykresluje se mezi nimi
+    private transient float prevX, prevY, prevAngle;
+    private transient float currX, currY, currAngle;
+    private transient boolean hasState = false;
 
     private float density = 1.0f;
     private float friction = 0.3f;
@@ -35,6 +45,8 @@ public class RigidBody2D extends Component {
     private float restitutionDragStart;
 
     private boolean isSensor = false;
+    // Jméno kolizní vrstvy projektu (CollisionLayers)
+    private String collisionLayer = CollisionLayers.DEFAULT;
 
     public float getDensity() { return density; }
     public float getFriction() { return friction; }
@@ -47,14 +59,55 @@ public class RigidBody2D extends Component {
     @Override
     public void update(float dt) {
         if (!Window.getView().isGame) return;
-        if (rawBody != null) {
+        // čte jen publikovaný snapshot, těleso může zrovna krokovat vlákno fyziky
+        if (hasState) {
+            float alpha = Window.getView().getPhysics().getInterpolationAlpha();
             this.gameObject.transform.position.set(
-                    rawBody.getPosition().x, rawBody.getPosition().y
+                    prevX + (currX - prevX) * alpha,
+                    prevY + (currY - prevY) * alpha
             );
-            this.gameObject.transform.rotation = rawBody.getAngle();
+            this.gameObject.transform.rotation = prevAngle + (currAngle - prevAngle) * alpha;
         }
     }
 
+    public void setState(float prevX, float prevY, float prevAngle, float currX, float currY, float currAngle) {
+        this.prevX = prevX;
+        this.prevY = prevY;
+        this.prevAngle = prevAngle;
+        this.currX = currX;
+        this.currY = currY;
+        this.currAngle = currAngle;
+        this.hasState = true;
+    }
+
+    // Síly a rychlosti jdou přes frontu příkazů fyziky, bezpečné i při threaded fyzice
+    public void applyForce(Vector2f force) {
+        float fx = force.x, fy = force.y;
+        Window.getView().getPhysics().submit(() -> {
+            if (rawBody != null) rawBody.applyForceToCenter(new Vec2(fx, fy));
+        });
+    }
+
+    public void applyLinearImpulse(Vector2f impulse) {
+        float ix = impulse.x, iy = impulse.y;
+        Window.getView().getPhysics().submit(() -> {
+            if (rawBody != null) rawBody.applyLinearImpulse(new Vec2(ix, iy), rawBody.getWorldCenter());
+        });
+    }
+
+    public void setLinearVelocity(Vector2f velocity) {
+        float vx = velocity.x, vy = velocity.y;
+        Window.getView().getPhysics().submit(() -> {
+            if (rawBody != null) rawBody.setLinearVelocity(new Vec2(vx, vy));
+        });
+    }
+
+    public void setAngularVelocity(float omega) {
+        Window.getView().getPhysics().submit(() -> {
+            if (rawBody != null) rawBody.setAngularVelocity(omega);
+        });
+    }
+
     public Vector2f getVelocity() {
         return velocity;
     }
@@ -127,6 +180,16 @@ public class RigidBody2D extends Component {
         isSensor = sensor;
     }
 
+    public String getCollisionLayer() {
+        return collisionLayer;
+    }
+
+    // Změna vrstvy existujícího tělesa se mu přefiltruje přes frontu příkazů fyziky
+    public void setCollisionLayer(String collisionLayer) {
+        this.collisionLayer = collisionLayer;
+        if (rawBody != null) Window.getView().getPhysics().updateCollisionLayer(gameObject);
+    }
+
     @Override
     public void imgui() {
         super.imgui();
@@ -297,6 +360,26 @@ public class RigidBody2D extends Component {
             );
         }
 
+        // --- Collision Layer ---
+        Project project = ProjectManager.get().getCurrentProject();
+        CollisionLayers layers = project != null ? project.getCollisionLayers() : new CollisionLayers();
+        String[] layerNames = layers.getNames().toArray(new String[0]);
+        ImInt layer = new ImInt(Math.max(0, layers.indexOf(collisionLayer)));
+        if (ImGui.combo("Collision Layer", layer, layerNames, layerNames.length)) {
+            String oldVal = collisionLayer;
+            String newVal = layerNames[layer.get()];
+            Window.getActionManager().execute(
+                    new ComponentValueChangeAction<>(
+                            "Change Collision Layer",
+                            gameObject,
+                            RigidBody2D.class,
+                            RigidBody2D::setCollisionLayer,
+                            oldVal,
+                            newVal
+                    )
+            );
+        }
+
         // --- Material Properties ---
         ImGui.text("Material Properties:");
 
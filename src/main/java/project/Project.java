@@ -1,6 +1,7 @@
 package project;
 
 import engine.View;
+import physics2d.CollisionLayers;
 
 import java.nio.file.Path;
 import java.util.List;
@@ -9,6 +10,12 @@ public class Project {
     private String name;
     private final Path projectPath;      // Kořenová složka projektu
     private List<View> views;
+    private boolean textureAtlasEnabled = false;
+    private boolean instancedRendering = false;
+    private boolean threadedPhysics = false;
+    private boolean mergeStaticColliders = false;
+    private boolean physicsDebug = false;
+    private CollisionLayers collisionLayers = new CollisionLayers();
 
     protected Project(String name, Path projectPath, List<View> views) {
         this.name = name;
@@ -50,6 +57,10 @@ public class Project {
         return projectPath.resolve("assets/audio");
     }
 
+    public Path getAtlasPath() {
+        return projectPath.resolve("assets/atlas");
+    }
+
     public Path getConfigPath() {
         return projectPath.resolve("project.json");
     }
@@ -66,6 +77,54 @@ public class Project {
         this.name = name;
     }
 
+    public boolean isTextureAtlasEnabled() {
+        return textureAtlasEnabled;
+    }
+
+    public void setTextureAtlasEnabled(boolean textureAtlasEnabled) {
+        this.textureAtlasEnabled = textureAtlasEnabled;
+    }
+
+    public boolean isInstancedRendering() {
+        return instancedRendering;
+    }
+
+    public void setInstancedRendering(boolean instancedRendering) {
+        this.instancedRendering = instancedRendering;
+    }
+
+    public boolean isThreadedPhysics() {
+        return threadedPhysics;
+    }
+
+    public void setThreadedPhysics(boolean threadedPhysics) {
+        this.threadedPhysics = threadedPhysics;
+    }
+
+    public boolean isMergeStaticColliders() {
+        return mergeStaticColliders;
+    }
+
+    public void setMergeStaticColliders(boolean mergeStaticColliders) {
+        this.mergeStaticColliders = mergeStaticColliders;
+    }
+
+    public boolean isPhysicsDebug() {
+        return physicsDebug;
+    }
+
+    public void setPhysicsDebug(boolean physicsDebug) {
+        this.physicsDebug = physicsDebug;
+    }
+
+    public CollisionLayers getCollisionLayers() {
+        return collisionLayers;
+    }
+
+    public void setCollisionLayers(CollisionLayers collisionLayers) {
+        this.collisionLayers = collisionLayers;
+    }
+
     public void addScene(View view) {
         this.views.add(view);
     }
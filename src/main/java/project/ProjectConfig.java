@@ -1,9 +1,19 @@
 package project;
 
 import java.util.List;
+import java.util.Map;
 
 public class ProjectConfig {
     public String projectName;
     public String projectPath;
     public List<String> scenes;
+    public boolean textureAtlas;
+    public boolean instancedRendering;
+    public boolean threadedPhysics;
+    public boolean mergeStaticColliders;
+    // Okno Physics (statistiky kroku, profiling) v běžící hře
+    public boolean physicsDebug;
+    // Kolizní vrstvy a matice: vrstva -> vrstvy, se kterými koliduje (chybějící řádek = se všemi)
+    public List<String> collisionLayers;
+    public Map<String, List<String>> collisionMatrix;
 }
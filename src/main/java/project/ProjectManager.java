@@ -9,6 +9,7 @@ import observers.EventSystem;
 import observers.EventType;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
+import physics2d.CollisionLayers;
 import physics2d.components.Box2DCollider;
 import physics2d.components.CapsuleCollider;
 import physics2d.components.CircleCollider;
@@ -168,6 +169,12 @@ public class ProjectManager {
             String json = Files.readString(Path.of(path));
             ProjectConfig cfg = gson.fromJson(json, ProjectConfig.class);
             this.currentProject = new Project(cfg.projectName, Path.of(cfg.projectPath));
+            this.currentProject.setTextureAtlasEnabled(cfg.textureAtlas);
+            this.currentProject.setInstancedRendering(cfg.instancedRendering);
+            this.currentProject.setThreadedPhysics(cfg.threadedPhysics);
+            this.currentProject.setMergeStaticColliders(cfg.mergeStaticColliders);
+            this.currentProject.setPhysicsDebug(cfg.physicsDebug);
+            this.currentProject.setCollisionLayers(CollisionLayers.fromConfig(cfg.collisionLayers, cfg.collisionMatrix));
             Window.get().updateTitle();
         } catch (IOException e) {
             e.printStackTrace();
@@ -263,12 +270,21 @@ public class ProjectManager {
     }
 
     public List<GameObject> loadSceneObjects(String scene) {
-        if (currentProject == null) return null;
+        Group root = Window.getView().getRoot();
+        if (!loadSceneInto(scene, root, true)) return null;
+        return root.getAllObjectsRecursive();
+    }
+
+    /**
+     * Načte scénu do zadané skupiny bez závislosti na okně/view (headless nástroje).
+     * withScripts = false přeskočí ScriptComponenty, které kompilují a sledují soubory.
+     */
+    public boolean loadSceneInto(String scene, Group root, boolean withScripts) {
+        if (currentProject == null) return false;
 
         Path file = scenesDir().resolve(scene + ".json");
         System.out.println("Loading scene " + file.toAbsolutePath());
-        if (!Files.exists(file)) return null;
-        Group root = Window.getView().getRoot();
+        if (!Files.exists(file)) return false;
 
         try {
             String json = Files.readString(file);
@@ -277,27 +293,27 @@ public class ProjectManager {
             root.getObjects().clear();
             root.getGroups().clear();
 
-            if (sceneData == null) return null;
+            if (sceneData == null) return false;
 
             if (sceneData.objects != null) {
                 for (GameObjectData god : sceneData.objects) {
-                    root.add(dataToGameObject(god));
+                    root.add(dataToGameObject(god, withScripts));
                 }
             }
 
             if (sceneData.groups != null) {
                 for (GroupData gd : sceneData.groups) {
-                    root.addGroup(dataToGroup(gd));
+                    root.addGroup(dataToGroup(gd, withScripts));
                 }
             }
 
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return root.getAllObjectsRecursive();
+        return true;
     }
 
-    private GameObject dataToGameObject(GameObjectData god) {
+    private GameObject dataToGameObject(GameObjectData god, boolean withScripts) {
         GameObject go = new GameObject(
                 god.name,
                 new Transform(
@@ -340,7 +356,7 @@ public class ProjectManager {
         }
 
         // Scripts
-        if (god.scripts != null) {
+        if (withScripts && god.scripts != null) {
             for (String scriptClass : god.scripts) {
                 Path p = getScriptPath(scriptClass);
                 if (p != null) {
@@ -364,6 +380,7 @@ public class ProjectManager {
             rb.setDensity(god.rigidBody.density);
             rb.setFriction(god.rigidBody.friction);
             rb.setRestitution(god.rigidBody.restitution);
+            if (god.rigidBody.collisionLayer != null) rb.setCollisionLayer(god.rigidBody.collisionLayer);
             go.addComponent(rb);
         }
 
@@ -434,15 +451,15 @@ public class ProjectManager {
     }
 
 
-    private Group dataToGroup(GroupData gd) {
+    private Group dataToGroup(GroupData gd, boolean withScripts) {
         Group group = new Group(gd.name);
 
         for (GameObjectData god : gd.objects) {
-            group.add(dataToGameObject(god));
+            group.add(dataToGameObject(god, withScripts));
         }
 
         for (GroupData sub : gd.groups) {
-            group.addGroup(dataToGroup(sub));
+            group.addGroup(dataToGroup(sub, withScripts));
         }
 
         return group;
@@ -553,6 +570,7 @@ public class ProjectManager {
             god.rigidBody.density = rigidBody.getDensity();
             god.rigidBody.friction = rigidBody.getFriction();
             god.rigidBody.restitution = rigidBody.getRestitution();
+            god.rigidBody.collisionLayer = rigidBody.getCollisionLayer();
         }
 
         // Box2DCollider
@@ -833,6 +851,7 @@ class RigidBodyData {
     float density;
     float friction;
     float restitution;
+    String collisionLayer;
 }
 
 class BoxColliderData {
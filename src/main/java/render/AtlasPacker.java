@@ -0,0 +1,128 @@
+package render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Skyline (bottom-left) packer obdélníků do jedné stránky atlasu. Čistě CPU, bez GL.
+ * Horní hrana už umístěných obdélníků je uložená jako seznam segmentů (x, y, šířka);
+ * nový obdélník jde na pozici s nejnižším y, při shodě na tu s nejmenší šířkou segmentu.
+ */
+public class AtlasPacker {
+
+    private static class Segment {
+        int x, y, width;
+
+        Segment(int x, int y, int width) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final List<Segment> skyline = new ArrayList<>();
+    private long usedArea = 0;
+
+    public AtlasPacker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        skyline.add(new Segment(0, 0, width));
+    }
+
+    /**
+     * Najde místo pro obdélník w x h.
+     *
+     * @param outXY sem se zapíše levý horní roh [x, y]
+     * @return false, pokud se obdélník do stránky nevejde
+     */
+    public boolean pack(int w, int h, int[] outXY) {
+        if (w <= 0 || h <= 0 || w > width || h > height) return false;
+
+        int bestIndex = -1;
+        int bestY = Integer.MAX_VALUE;
+        int bestWidth = Integer.MAX_VALUE;
+
+        for (int i = 0; i < skyline.size(); i++) {
+            int y = fit(i, w, h);
+            if (y < 0) continue;
+
+            int segWidth = skyline.get(i).width;
+            if (y < bestY || (y == bestY && segWidth < bestWidth)) {
+                bestIndex = i;
+                bestY = y;
+                bestWidth = segWidth;
+            }
+        }
+
+        if (bestIndex == -1) return false;
+
+        int x = skyline.get(bestIndex).x;
+        place(bestIndex, x, bestY + h, w);
+        usedArea += (long) w * h;
+
+        outXY[0] = x;
+        outXY[1] = bestY;
+        return true;
+    }
+
+    // Nejnižší y, na kterém obdélník začínající segmentem 'index' leží na skyline, nebo -1
+    private int fit(int index, int w, int h) {
+        int x = skyline.get(index).x;
+        if (x + w > width) return -1;
+
+        int y = 0;
+        int remaining = w;
+        int i = index;
+        while (remaining > 0) {
+            if (i >= skyline.size()) return -1;
+            Segment s = skyline.get(i);
+            y = Math.max(y, s.y);
+            if (y + h > height) return -1;
+            remaining -= s.width;
+            i++;
+        }
+        return y;
+    }
+
+    private void place(int index, int x, int top, int w) {
+        skyline.add(index, new Segment(x, top, w));
+
+        // zkrátit/odstranit segmenty překryté novým
+        int end = x + w;
+        int i = index + 1;
+        while (i < skyline.size()) {
+            Segment s = skyline.get(i);
+            if (s.x >= end) break;
+
+            int overlap = end - s.x;
+            if (overlap >= s.width) {
+                skyline.remove(i);
+            } else {
+                s.x += overlap;
+                s.width -= overlap;
+                break;
+            }
+        }
+
+        // sloučit sousední segmenty se stejnou výškou
+        for (int j = 0; j < skyline.size() - 1; j++) {
+            Segment a = skyline.get(j);
+            Segment b = skyline.get(j + 1);
+            if (a.y == b.y) {
+                a.width += b.width;
+                skyline.remove(j + 1);
+                j--;
+            }
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    // Podíl plochy stránky zabraný vloženými obdélníky (0..1)
+    public float getOccupancy() {
+        return usedArea / (float) ((long) width * height);
+    }
+}
@@ -0,0 +1,70 @@
+package render;
+
+import engine.Camera;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
+/**
+ * Uniform buffer s maticemi kamery (blok "Camera" ve vertex shaderech, std140):
+ * uProjection, uView, uViewProjection. Nahrává se jen když se změnila kamera nebo její matice,
+ * shadery ho mají napojený na BINDING už při kompilaci.
+ */
+public class CameraUniforms {
+    public static final String BLOCK_NAME = "Camera";
+    public static final int BINDING = 0;
+
+    // std140: mat4 = 4 sloupce po vec4, tři matice za sebou bez paddingu
+    private static final int MATRIX_FLOATS = 16;
+    private static final int SIZE_FLOATS = 3 * MATRIX_FLOATS;
+
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(SIZE_FLOATS);
+    private int uboID = -1;
+    private Camera lastCamera;
+    private int lastVersion = -1;
+
+    private void start() {
+        GraphicsBackend gl = Renderer.getBackend();
+        uboID = gl.genBuffer();
+        gl.bindBuffer(GL_UNIFORM_BUFFER, uboID);
+        gl.bufferData(GL_UNIFORM_BUFFER, (long) SIZE_FLOATS * Float.BYTES, GL_DYNAMIC_DRAW);
+        gl.bindBufferBase(GL_UNIFORM_BUFFER, BINDING, uboID);
+        gl.bindBuffer(GL_UNIFORM_BUFFER, 0);
+    }
+
+    /**
+     * Nahraje matice kamery, pokud se od posledního volání změnily; volá se před kreslením
+     * (renderer, ladicí čáry) a opakovaná volání ve stejném snímku nic nestojí.
+     */
+    public void update(Camera camera) {
+        if (camera == null) return;
+        if (uboID == -1) start();
+
+        int version = camera.getMatrixVersion();
+        if (camera == lastCamera && version == lastVersion) return;
+
+        camera.getProjectionMatrix().get(0, data);
+        camera.getViewMatrix().get(MATRIX_FLOATS, data);
+        camera.getViewProjectionMatrix().get(2 * MATRIX_FLOATS, data);
+        data.rewind();
+
+        GraphicsBackend gl = Renderer.getBackend();
+        gl.bindBuffer(GL_UNIFORM_BUFFER, uboID);
+        gl.bufferSubData(GL_UNIFORM_BUFFER, 0, data);
+        gl.bindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        lastCamera = camera;
+        lastVersion = version;
+    }
+
+    // Napojí blok "Camera" programu na BINDING; programy bez bloku se přeskočí
+    public static void bind(int programID) {
+        GraphicsBackend gl = Renderer.getBackend();
+        int blockIndex = gl.getUniformBlockIndex(programID, BLOCK_NAME);
+        if (blockIndex < 0) return;
+        gl.uniformBlockBinding(programID, blockIndex, BINDING);
+    }
+}
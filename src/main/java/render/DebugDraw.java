@@ -0,0 +1,266 @@
+package render;
+
+import engine.Camera;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
+import util.AssetPool;
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_LINES;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
+
+/**
+ * Dávkové kreslení ladicích čar: čáry se během snímku sbírají do jednoho pole vrcholů
+ * (pozice + barva) a render() je nahraje do jednoho dynamického VBO a vykreslí jedním draw callem.
+ * Každá čára má životnost ve snímcích (1 = jen tento snímek).
+ */
+public class DebugDraw {
+    public static final Vector4f WHITE = new Vector4f(1, 1, 1, 1);
+    public static final Vector4f GREEN = new Vector4f(0, 1, 0, 1);
+
+    private static final int POS_SIZE = 2;
+    private static final int COLOR_SIZE = 4;
+    private static final int VERTEX_SIZE = POS_SIZE + COLOR_SIZE;
+    private static final int VERTEX_SIZE_BYTES = VERTEX_SIZE * Float.BYTES;
+    private static final int LINE_SIZE = 2 * VERTEX_SIZE;
+
+    // Teselace kruhu podle počtu úseků
+    private static final Map<Integer, float[]> unitCircles = new HashMap<>();
+
+    private float[] vertices;
+    private int[] lifetimes;
+    private int numLines = 0;
+
+    private Shader shader;
+    private FloatBuffer uploadBuffer;
+    private int vaoID, vboID;
+    private int gpuCapacity = 0;
+    private float lineWidth = 1.5f;
+
+    public DebugDraw(int initialLines) {
+        this.vertices = new float[initialLines * LINE_SIZE];
+        this.lifetimes = new int[initialLines];
+    }
+
+    private void start() {
+        GraphicsBackend gl = Renderer.getBackend();
+        shader = AssetPool.getShader("vertexDebug.glsl", "fragmentDebug.glsl");
+
+        vaoID = gl.genVertexArray();
+        Renderer.getState().bindVertexArray(vaoID);
+
+        vboID = gl.genBuffer();
+        gl.bindBuffer(GL_ARRAY_BUFFER, vboID);
+        allocateGpu(gl);
+
+        gl.vertexAttribPointer(0, POS_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, 0);
+        gl.enableVertexAttribArray(0);
+        gl.vertexAttribPointer(1, COLOR_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, (long) POS_SIZE * Float.BYTES);
+        gl.enableVertexAttribArray(1);
+    }
+
+    // VBO i upload buffer mají kapacitu CPU pole; při jeho zvětšení se alokují znovu
+    private void allocateGpu(GraphicsBackend gl) {
+        gpuCapacity = lifetimes.length;
+        gl.bufferData(GL_ARRAY_BUFFER, (long) vertices.length * Float.BYTES, GL_DYNAMIC_DRAW);
+        uploadBuffer = BufferUtils.createFloatBuffer(vertices.length);
+    }
+
+    // ==================================================
+    // Přidávání primitiv
+    // ==================================================
+    public void addLine(float x1, float y1, float x2, float y2, Vector4f color, int lifetime) {
+        if (numLines == lifetimes.length) grow();
+
+        int o = numLines * LINE_SIZE;
+        vertices[o]     = x1;
+        vertices[o + 1] = y1;
+        vertices[o + 2] = color.x;
+        vertices[o + 3] = color.y;
+        vertices[o + 4] = color.z;
+        vertices[o + 5] = color.w;
+        vertices[o + 6] = x2;
+        vertices[o + 7] = y2;
+        vertices[o + 8] = color.x;
+        vertices[o + 9] = color.y;
+        vertices[o + 10] = color.z;
+        vertices[o + 11] = color.w;
+        lifetimes[numLines] = Math.max(1, lifetime);
+        numLines++;
+    }
+
+    public void addLine(float x1, float y1, float x2, float y2, Vector4f color) {
+        addLine(x1, y1, x2, y2, color, 1);
+    }
+
+    public void addLine(Vector2f from, Vector2f to, Vector4f color) {
+        addLine(from.x, from.y, to.x, to.y, color, 1);
+    }
+
+    // Uzavřený polygon z bodů ve světových souřadnicích
+    public void addPolygon(Vector2f[] points, int count, Vector4f color) {
+        for (int i = 0; i < count; i++) {
+            Vector2f a = points[i];
+            Vector2f b = points[(i + 1) % count];
+            addLine(a.x, a.y, b.x, b.y, color, 1);
+        }
+    }
+
+    public void addRect(float minX, float minY, float maxX, float maxY, Vector4f color) {
+        addLine(minX, minY, maxX, minY, color, 1);
+        addLine(maxX, minY, maxX, maxY, color, 1);
+        addLine(maxX, maxY, minX, maxY, color, 1);
+        addLine(minX, maxY, minX, minY, color, 1);
+    }
+
+    public void addBox2D(Vector2f center, Vector2f dimensions, float rotation, Vector4f color) {
+        addBox2D(center, dimensions, rotation, color, 1);
+    }
+
+    public void addBox2D(Vector2f center, Vector2f dimensions, float rotation, Vector4f color, int lifetime) {
+        float hx = dimensions.x * 0.5f;
+        float hy = dimensions.y * 0.5f;
+        float cos = (float) Math.cos(rotation);
+        float sin = (float) Math.sin(rotation);
+
+        // rohy (-hx,-hy), (-hx,hy), (hx,hy), (hx,-hy) otočené kolem středu
+        float ax = center.x + (-hx * cos + hy * sin), ay = center.y + (-hx * sin - hy * cos);
+        float bx = center.x + (-hx * cos - hy * sin), by = center.y + (-hx * sin + hy * cos);
+        float cx = center.x + ( hx * cos - hy * sin), cy = center.y + ( hx * sin + hy * cos);
+        float dx = center.x + ( hx * cos + hy * sin), dy = center.y + ( hx * sin - hy * cos);
+
+        addLine(ax, ay, bx, by, color, lifetime);
+        addLine(ax, ay, dx, dy, color, lifetime);
+        addLine(bx, by, cx, cy, color, lifetime);
+        addLine(cx, cy, dx, dy, color, lifetime);
+    }
+
+    public void addCircle(Vector2f center, float radius, Vector4f color, int segments) {
+        addArc(center.x, center.y, radius, 1.0f, 0.0f, unitCircle(segments), 0, segments, color);
+    }
+
+    public void addCapsule(Vector2f center, float radius, float height, float rotation, Vector4f color, int segments) {
+        if (height < radius * 2f) return;
+
+        float halfStraight = (height / 2f) - radius;
+        float cos = (float) Math.cos(rotation);
+        float sin = (float) Math.sin(rotation);
+
+        // osa kapsle po rotaci; středy kruhů jsou na ní ve vzdálenosti halfStraight
+        float ux = -sin * halfStraight, uy = cos * halfStraight;
+        float rx = cos * radius, ry = sin * radius;
+
+        // půlkruhy = dvě poloviny kruhu s 2 * segments úseky, otočené jedním sin/cos
+        float[] circle = unitCircle(2 * segments);
+        addArc(center.x + ux, center.y + uy, radius, cos, sin, circle, 0, segments, color);
+        addArc(center.x - ux, center.y - uy, radius, cos, sin, circle, segments, segments, color);
+
+        addLine(center.x - rx + ux, center.y - ry + uy, center.x - rx - ux, center.y - ry - uy, color, 1);
+        addLine(center.x + rx + ux, center.y + ry + uy, center.x + rx - ux, center.y + ry - uy, color, 1);
+    }
+
+    // Úseky first..first+count jednotkového kruhu, otočené o (cos, sin), zvětšené a posunuté do (cx, cy)
+    private void addArc(float cx, float cy, float radius, float cos, float sin,
+                        float[] circle, int first, int count, Vector4f color) {
+        int p = first * 2;
+        float x1 = cx + radius * (circle[p] * cos - circle[p + 1] * sin);
+        float y1 = cy + radius * (circle[p] * sin + circle[p + 1] * cos);
+        for (int i = 1; i <= count; i++) {
+            p += 2;
+            float x2 = cx + radius * (circle[p] * cos - circle[p + 1] * sin);
+            float y2 = cy + radius * (circle[p] * sin + circle[p + 1] * cos);
+            addLine(x1, y1, x2, y2, color, 1);
+            x1 = x2;
+            y1 = y2;
+        }
+    }
+
+    /**
+     * Body jednotkového kruhu (x, y) pro daný počet úseků, spočítané jednou a sdílené;
+     * poslední bod je kopie prvního, takže kruh se přesně uzavře.
+     */
+    private static float[] unitCircle(int segments) {
+        float[] circle = unitCircles.get(segments);
+        if (circle == null) {
+            circle = new float[(segments + 1) * 2];
+            for (int i = 0; i < segments; i++) {
+                double angle = 2 * Math.PI * i / segments;
+                circle[i * 2] = (float) Math.cos(angle);
+                circle[i * 2 + 1] = (float) Math.sin(angle);
+            }
+            circle[segments * 2] = circle[0];
+            circle[segments * 2 + 1] = circle[1];
+            unitCircles.put(segments, circle);
+        }
+        return circle;
+    }
+
+    private void grow() {
+        int lines = lifetimes.length * 2;
+        float[] newVertices = new float[lines * LINE_SIZE];
+        System.arraycopy(vertices, 0, newVertices, 0, numLines * LINE_SIZE);
+        int[] newLifetimes = new int[lines];
+        System.arraycopy(lifetimes, 0, newLifetimes, 0, numLines);
+        vertices = newVertices;
+        lifetimes = newLifetimes;
+    }
+
+    // ==================================================
+    // Vykreslení
+    // ==================================================
+
+    /**
+     * Vykreslí všechny živé čáry jedním draw callem a odečte jim jeden snímek životnosti;
+     * volá se jednou za snímek.
+     */
+    public void render(Camera camera) {
+        if (numLines == 0) return;
+
+        GraphicsBackend gl = Renderer.getBackend();
+        if (shader == null) start();
+
+        gl.bindBuffer(GL_ARRAY_BUFFER, vboID);
+        if (gpuCapacity < lifetimes.length) allocateGpu(gl);
+        uploadBuffer.clear();
+        uploadBuffer.put(vertices, 0, numLines * LINE_SIZE).flip();
+        gl.bufferSubData(GL_ARRAY_BUFFER, 0, uploadBuffer);
+
+        Renderer.getCameraUniforms().update(camera);
+        shader.use();
+
+        gl.lineWidth(lineWidth);
+        Renderer.getState().bindVertexArray(vaoID);
+        gl.drawArrays(GL_LINES, 0, numLines * 2);
+
+        age();
+    }
+
+    // Odebere čáry, kterým vypršela životnost; pořadí zbylých zůstává
+    private void age() {
+        int kept = 0;
+        for (int i = 0; i < numLines; i++) {
+            if (--lifetimes[i] <= 0) continue;
+            if (kept != i) {
+                System.arraycopy(vertices, i * LINE_SIZE, vertices, kept * LINE_SIZE, LINE_SIZE);
+                lifetimes[kept] = lifetimes[i];
+            }
+            kept++;
+        }
+        numLines = kept;
+    }
+
+    public void clear() {
+        numLines = 0;
+    }
+
+    public int getNumLines() { return numLines; }
+
+    public float getLineWidth() { return lineWidth; }
+    public void setLineWidth(float lineWidth) { this.lineWidth = lineWidth; }
+}
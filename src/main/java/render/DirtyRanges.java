@@ -0,0 +1,83 @@
+package render;
+
+// Malá množina seřazených, sloučených rozsahů [start, end) – po vytvoření nic nealokuje
+public class DirtyRanges {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int mergeGap;
+    private int count = 0;
+
+    /**
+     * @param maxRanges maximální počet rozsahů; při překročení se sloučí dva nejbližší
+     * @param mergeGap  rozsahy vzdálené nejvýš o tuto mezeru se spojí do jednoho
+     */
+    public DirtyRanges(int maxRanges, int mergeGap) {
+        assert maxRanges > 0 : "DirtyRanges needs at least one range";
+        this.starts = new int[maxRanges];
+        this.ends = new int[maxRanges];
+        this.mergeGap = mergeGap;
+    }
+
+    public void add(int start, int end) {
+        if (end <= start) return;
+
+        int i = 0;
+        while (i < count && ends[i] + mergeGap < start) i++;
+
+        if (i < count && starts[i] <= end + mergeGap) {
+            // překryv se stávajícím rozsahem => rozšířit a pohltit případné další
+            starts[i] = Math.min(starts[i], start);
+            int newEnd = Math.max(ends[i], end);
+            int j = i + 1;
+            while (j < count && starts[j] <= newEnd + mergeGap) {
+                newEnd = Math.max(newEnd, ends[j]);
+                j++;
+            }
+            ends[i] = newEnd;
+            remove(i + 1, j);
+            return;
+        }
+
+        if (count == starts.length) {
+            mergeClosest();
+            add(start, end);
+            return;
+        }
+
+        System.arraycopy(starts, i, starts, i + 1, count - i);
+        System.arraycopy(ends, i, ends, i + 1, count - i);
+        starts[i] = start;
+        ends[i] = end;
+        count++;
+    }
+
+    private void mergeClosest() {
+        if (count < 2) return;
+        int best = 0;
+        for (int k = 1; k < count - 1; k++) {
+            if (starts[k + 1] - ends[k] < starts[best + 1] - ends[best]) best = k;
+        }
+        ends[best] = ends[best + 1];
+        remove(best + 1, best + 2);
+    }
+
+    // odstraní rozsahy [from, to)
+    private void remove(int from, int to) {
+        int removed = to - from;
+        if (removed <= 0) return;
+        System.arraycopy(starts, to, starts, from, count - to);
+        System.arraycopy(ends, to, ends, from, count - to);
+        count -= removed;
+    }
+
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public int getStart(int i) { return starts[i]; }
+    public int getEnd(int i) { return ends[i]; }
+
+    public int getMin() { return count == 0 ? 0 : starts[0]; }
+    public int getMax() { return count == 0 ? 0 : ends[count - 1]; }
+
+    public void clear() { count = 0; }
+}
@@ -0,0 +1,118 @@
+package render;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+// Tenká vrstva nad GL voláními, aby šel renderer (batche, culling, upload) spustit i bez GPU
+public interface GraphicsBackend {
+
+    // ==================================================
+    // Buffery
+    // ==================================================
+    int genBuffer();
+
+    void bindBuffer(int target, int buffer);
+
+    // alokuje (nebo osiřelí) úložiště bufferu bez dat
+    void bufferData(int target, long sizeBytes, int usage);
+
+    void bufferData(int target, float[] data, int usage);
+
+    void bufferData(int target, int[] data, int usage);
+
+    void bufferSubData(int target, long offsetBytes, FloatBuffer data);
+
+    void bufferSubData(int target, long offsetBytes, IntBuffer data);
+
+    void bindBufferBase(int target, int index, int buffer);
+
+    // ==================================================
+    // Vertex array
+    // ==================================================
+    int genVertexArray();
+
+    void bindVertexArray(int vao);
+
+    void vertexAttribPointer(int index, int size, int type, boolean normalized, int strideBytes, long offsetBytes);
+
+    void enableVertexAttribArray(int index);
+
+    void disableVertexAttribArray(int index);
+
+    void vertexAttribDivisor(int index, int divisor);
+
+    // ==================================================
+    // Kreslení
+    // ==================================================
+    void drawElements(int mode, int count, int type, long offsetBytes);
+
+    void drawElementsInstanced(int mode, int count, int type, long offsetBytes, int instances);
+
+    void drawArrays(int mode, int first, int count);
+
+    void lineWidth(float width);
+
+    // ==================================================
+    // Textury
+    // ==================================================
+    int genTexture();
+
+    void activeTexture(int unit);
+
+    void bindTexture(int target, int texture);
+
+    void texParameteri(int target, int name, int value);
+
+    void texImage2D(int target, int level, int internalFormat, int width, int height,
+                    int format, int type, ByteBuffer pixels);
+
+    // ==================================================
+    // Shadery
+    // ==================================================
+    int createShader(int type);
+
+    void shaderSource(int shader, CharSequence source);
+
+    void compileShader(int shader);
+
+    int getShaderi(int shader, int name);
+
+    String getShaderInfoLog(int shader);
+
+    int createProgram();
+
+    void attachShader(int program, int shader);
+
+    void linkProgram(int program);
+
+    int getProgrami(int program, int name);
+
+    String getProgramInfoLog(int program);
+
+    void useProgram(int program);
+
+    int getUniformLocation(int program, CharSequence name);
+
+    String getActiveUniformName(int program, int index);
+
+    int getUniformBlockIndex(int program, CharSequence name);
+
+    void uniformBlockBinding(int program, int blockIndex, int binding);
+
+    void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+    void uniformMatrix3fv(int location, boolean transpose, FloatBuffer value);
+
+    void uniform4f(int location, float x, float y, float z, float w);
+
+    void uniform3f(int location, float x, float y, float z);
+
+    void uniform2f(int location, float x, float y);
+
+    void uniform1f(int location, float value);
+
+    void uniform1i(int location, int value);
+
+    void uniform1iv(int location, int[] value);
+}
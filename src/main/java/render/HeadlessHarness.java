@@ -0,0 +1,142 @@
+package render;
+
+import components.SpriteRenderer;
+import engine.Camera;
+import engine.GameObject;
+import engine.Group;
+import org.joml.Vector2f;
+import project.ProjectManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Měření rendereru bez okna a GPU (RecordingBackend): načte scénu, kamerou projede přes její
+ * rozsah a vypíše CPU čas snímku, draw cally a objem nahraných dat.
+ *
+ * Použití: HeadlessHarness <project.json> <scéna> [snímky] [--instanced] [--no-cull] [--dirty podíl]
+ */
+public class HeadlessHarness {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: HeadlessHarness <project.json> <scene> [frames] [--instanced] [--no-cull] [--dirty fraction]");
+            return;
+        }
+
+        String projectFile = args[0];
+        String scene = args[1];
+        int frames = 300;
+        boolean instanced = false;
+        boolean culling = true;
+        float dirtyFraction = 0.0f;
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--instanced" -> instanced = true;
+                case "--no-cull" -> culling = false;
+                case "--dirty" -> dirtyFraction = Float.parseFloat(args[++i]);
+                default -> frames = Integer.parseInt(args[i]);
+            }
+        }
+
+        RecordingBackend backend = new RecordingBackend();
+        backend.setRecording(false);
+        Renderer.setBackend(backend);
+
+        ProjectManager.get().openProject(projectFile);
+        if (ProjectManager.get().getCurrentProject() == null) {
+            System.out.println("Cannot open project " + projectFile);
+            return;
+        }
+
+        Group root = new Group("Root");
+        if (!ProjectManager.get().loadSceneInto(scene, root, false)) {
+            System.out.println("Cannot load scene " + scene);
+            return;
+        }
+
+        Camera camera = new Camera(new Vector2f());
+        Renderer renderer = new Renderer();
+        renderer.setCamera(camera);
+        renderer.setCullingEnabled(culling);
+        renderer.setInstancingEnabled(instanced);
+
+        List<SpriteRenderer> sprites = new ArrayList<>();
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (GameObject go : root.getAllObjectsRecursive()) {
+            SpriteRenderer sprite = go.getComponent(SpriteRenderer.class);
+            if (sprite == null) continue;
+            sprite.start();
+            renderer.add(sprite);
+            sprites.add(sprite);
+            minX = Math.min(minX, go.transform.position.x);
+            minY = Math.min(minY, go.transform.position.y);
+            maxX = Math.max(maxX, go.transform.position.x);
+            maxY = Math.max(maxY, go.transform.position.y);
+        }
+        if (sprites.isEmpty()) {
+            System.out.println("Scene " + scene + " has no sprites");
+            return;
+        }
+
+        // první snímek nahraje všechno, do měření se nepočítá
+        renderer.render();
+        backend.reset();
+
+        Random random = new Random(1);
+        int dirtyPerFrame = (int) (sprites.size() * dirtyFraction);
+        float viewWidth = camera.getProjectionSize().x * camera.getZoom();
+        float viewHeight = camera.getProjectionSize().y * camera.getZoom();
+
+        long totalNanos = 0;
+        long maxNanos = 0;
+        long totalVisible = 0, totalCulled = 0;
+        long totalStateChanges = 0, totalStateSkipped = 0;
+
+        for (int f = 0; f < frames; f++) {
+            // kamera jede tam a zpět přes rozsah scény
+            float t = frames > 1 ? (float) f / (frames - 1) : 0.0f;
+            float p = t < 0.5f ? t * 2.0f : 2.0f - t * 2.0f;
+            camera.position.set(
+                    minX - viewWidth * 0.5f + (maxX - minX) * p,
+                    minY - viewHeight * 0.5f + (maxY - minY) * p);
+
+            for (int i = 0; i < dirtyPerFrame; i++) {
+                SpriteRenderer sprite = sprites.get(random.nextInt(sprites.size()));
+                sprite.gameObject.transform.position.add(0.01f, 0.0f);
+                sprite.setDirty();
+            }
+
+            Renderer.getState().beginFrame();
+            long start = System.nanoTime();
+            renderer.render();
+            long elapsed = System.nanoTime() - start;
+
+            totalNanos += elapsed;
+            maxNanos = Math.max(maxNanos, elapsed);
+            totalVisible += renderer.getStats().getVisibleSprites();
+            totalCulled += renderer.getStats().getCulledSprites();
+            totalStateChanges += Renderer.getState().getStateChanges();
+            totalStateSkipped += Renderer.getState().getStateChangesSkipped();
+        }
+
+        System.out.println("Scene:           " + scene + " (" + sprites.size() + " sprites, "
+                + renderer.getLayerCount() + " layers)");
+        System.out.println("Mode:            " + (instanced ? "instanced" : "vertices")
+                + (culling ? ", culling" : ", no culling")
+                + (dirtyPerFrame > 0 ? ", " + dirtyPerFrame + " dirty/frame" : ""));
+        System.out.println("Frames:          " + frames);
+        System.out.printf("Frame CPU time:  avg %.3f ms, max %.3f ms%n",
+                totalNanos / 1_000_000.0 / frames, maxNanos / 1_000_000.0);
+        System.out.printf("Draw calls:      %.1f / frame%n", (double) backend.getDrawCalls() / frames);
+        System.out.printf("Bytes uploaded:  %.0f / frame (%d total)%n",
+                (double) backend.getBytesUploaded() / frames, backend.getBytesUploaded());
+        System.out.printf("Sprites:         %.1f visible, %.1f culled / frame%n",
+                (double) totalVisible / frames, (double) totalCulled / frames);
+        System.out.printf("State changes:   %.1f sent, %.1f skipped / frame%n",
+                (double) totalStateChanges / frames, (double) totalStateSkipped / frames);
+    }
+}
@@ -0,0 +1,107 @@
+package render;
+
+import static util.Constants.MAX_VERTS_PER_SPRITE;
+
+// CPU strana index bufferu jedné batch – nepotřebuje GL kontext, po vytvoření nic nealokuje
+public class IndexBuffer {
+
+    private final int[] indices;
+    private final int[] baseVertex;
+    private final int[] indexStart;
+    private int numSprites;
+    private int indexCount;
+
+    // rozsah indexů [dirtyStart, dirtyEnd), který je potřeba nahrát na GPU
+    private int dirtyStart = Integer.MAX_VALUE;
+    private int dirtyEnd = 0;
+
+    public IndexBuffer(int maxSprites) {
+        this.indices = new int[maxSprites * MAX_VERTS_PER_SPRITE];
+        this.baseVertex = new int[maxSprites + 1];
+        this.indexStart = new int[maxSprites + 1];
+    }
+
+    /**
+     * Přegeneruje indexy spritů od 'from' do konce. Volá se jen při změně topologie
+     * (přidání/odebrání spritu, přepnutí trojúhelník/quad).
+     */
+    public void rebuild(int from, int numSprites, int[] vertexCounts) {
+        rebuild(from, numSprites, vertexCounts, null);
+    }
+
+    /**
+     * Jako rebuild, ale sprity s visible[i] == false nedostanou žádné indexy (ořezané kamerou).
+     * Vertexy zůstávají na svém místě, mění se jen index buffer.
+     */
+    public void rebuild(int from, int numSprites, int[] vertexCounts, boolean[] visible) {
+        this.numSprites = numSprites;
+        if (from > numSprites) from = numSprites;
+
+        int vertex = baseVertex[from];
+        int index = indexStart[from];
+        int start = index;
+
+        for (int i = from; i < numSprites; i++) {
+            baseVertex[i] = vertex;
+            indexStart[i] = index;
+
+            int vertCount = vertexCounts[i];
+            if (visible != null && !visible[i]) {
+                // nic
+            } else if (vertCount == 3) {
+                // Trojúhelník
+                indices[index++] = vertex;
+                indices[index++] = vertex + 1;
+                indices[index++] = vertex + 2;
+            } else if (vertCount >= 4) {
+                // Quad => dva trojúhelníky
+                indices[index++] = vertex;
+                indices[index++] = vertex + 1;
+                indices[index++] = vertex + 2;
+
+                indices[index++] = vertex;
+                indices[index++] = vertex + 2;
+                indices[index++] = vertex + 3;
+            }
+
+            vertex += vertCount;
+        }
+        baseVertex[numSprites] = vertex;
+        indexStart[numSprites] = index;
+        indexCount = index;
+
+        if (index > start) {
+            dirtyStart = Math.min(dirtyStart, start);
+            dirtyEnd = Math.max(dirtyEnd, index);
+        }
+    }
+
+    // Odebere sprity od 'numSprites' dál; indexy předchozích spritů se nemění
+    public void truncate(int numSprites) {
+        this.numSprites = numSprites;
+        indexCount = indexStart[numSprites];
+    }
+
+    public void clear() {
+        numSprites = 0;
+        indexCount = 0;
+        markClean();
+    }
+
+    public int[] getIndices() { return indices; }
+    public int getIndexCount() { return indexCount; }
+    public int getCapacity() { return indices.length; }
+    public int getNumSprites() { return numSprites; }
+
+    public int getIndexStart(int sprite) { return indexStart[sprite]; }
+    public int getBaseVertex(int sprite) { return baseVertex[sprite]; }
+
+    public boolean isDirty() { return dirtyEnd > dirtyStart; }
+    public int getDirtyStart() { return dirtyStart; }
+    public int getDirtyEnd() { return dirtyEnd; }
+
+    public void markClean() {
+        dirtyStart = Integer.MAX_VALUE;
+        dirtyEnd = 0;
+    }
+}
@@ -0,0 +1,90 @@
+package render;
+
+import engine.Transform;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+
+/**
+ * Layout a zápis dat jedné instance pro InstancedRenderBatch. Čistě CPU, bez GL.
+ * Sprite je jednotkový quad (-0.5..0.5) – místo 4 rozepsaných vrcholů po 12 floatech
+ * se posílá jen jeho transformace, barva a obdélníky tex coords.
+ */
+public class InstanceData {
+
+    public static final int POSITION_OFFSET = 0;    // vec2
+    public static final int SCALE_OFFSET = 2;       // vec2
+    public static final int ROTATION_OFFSET = 4;    // float
+    public static final int COLOR_OFFSET = 5;       // vec4
+    public static final int UV_RECT_OFFSET = 9;     // vec4: uv rohu 0 (xy) a rohu 2 (zw), už v atlasu
+    public static final int LOCAL_RECT_OFFSET = 13; // vec4: totéž před převodem do atlasu (pro roundness)
+    public static final int TEX_ID_OFFSET = 17;     // float
+    public static final int ROUNDNESS_OFFSET = 18;  // float
+
+    public static final int INSTANCE_SIZE = 19;
+    public static final int INSTANCE_SIZE_BYTES = INSTANCE_SIZE * Float.BYTES;
+
+    // Rohy jednotkového quadu ve stejném pořadí jako RenderBatch
+    public static final float[] UNIT_QUAD = {
+            -0.5f, -0.5f,
+             0.5f, -0.5f,
+             0.5f,  0.5f,
+            -0.5f,  0.5f
+    };
+    public static final int[] UNIT_QUAD_INDICES = {0, 1, 2, 0, 2, 3};
+
+    private static final Vector2f[] DEFAULT_TEX_COORDS = {
+            new Vector2f(0, 1),
+            new Vector2f(1, 1),
+            new Vector2f(1, 0),
+            new Vector2f(0, 0)
+    };
+
+    /**
+     * Zapíše instanci od 'offset'. Tex coords musí tvořit osově zarovnaný obdélník
+     * (platí pro sprity i spritesheety včetně flipu) – shader interpoluje mezi rohy 0 a 2.
+     * Neviditelná instance dostane nulové měřítko, takže se nic nerasterizuje.
+     */
+    public static void pack(float[] out, int offset, Transform t, Vector4f color,
+                            Vector2f[] texCoords, Texture texture, int texId, boolean visible) {
+        if (texCoords == null || texCoords.length < 4) texCoords = DEFAULT_TEX_COORDS;
+        Vector2f c0 = texCoords[0];
+        Vector2f c2 = texCoords[2];
+
+        out[offset + POSITION_OFFSET]     = t.position.x;
+        out[offset + POSITION_OFFSET + 1] = t.position.y;
+        out[offset + SCALE_OFFSET]        = visible ? t.scale.x : 0.0f;
+        out[offset + SCALE_OFFSET + 1]    = visible ? t.scale.y : 0.0f;
+        out[offset + ROTATION_OFFSET]     = t.rotation;
+        out[offset + COLOR_OFFSET]        = color.x;
+        out[offset + COLOR_OFFSET + 1]    = color.y;
+        out[offset + COLOR_OFFSET + 2]    = color.z;
+        out[offset + COLOR_OFFSET + 3]    = color.w;
+        out[offset + UV_RECT_OFFSET]      = texture != null ? texture.mapU(c0.x) : c0.x;
+        out[offset + UV_RECT_OFFSET + 1]  = texture != null ? texture.mapV(c0.y) : c0.y;
+        out[offset + UV_RECT_OFFSET + 2]  = texture != null ? texture.mapU(c2.x) : c2.x;
+        out[offset + UV_RECT_OFFSET + 3]  = texture != null ? texture.mapV(c2.y) : c2.y;
+        out[offset + LOCAL_RECT_OFFSET]     = c0.x;
+        out[offset + LOCAL_RECT_OFFSET + 1] = c0.y;
+        out[offset + LOCAL_RECT_OFFSET + 2] = c2.x;
+        out[offset + LOCAL_RECT_OFFSET + 3] = c2.y;
+        out[offset + TEX_ID_OFFSET]       = texId;
+        out[offset + ROUNDNESS_OFFSET]    = t.roundness;
+    }
+
+    /**
+     * AABB otočeného quadu se středem v pozici transformace.
+     *
+     * @param outBounds sem se zapíše [minX, minY, maxX, maxY]
+     */
+    public static void bounds(Transform t, float[] outBounds) {
+        float cos = Math.abs((float) Math.cos(t.rotation));
+        float sin = Math.abs((float) Math.sin(t.rotation));
+        float sx = Math.abs(t.scale.x), sy = Math.abs(t.scale.y);
+        float hx = 0.5f * (sx * cos + sy * sin);
+        float hy = 0.5f * (sx * sin + sy * cos);
+        outBounds[0] = t.position.x - hx;
+        outBounds[1] = t.position.y - hy;
+        outBounds[2] = t.position.x + hx;
+        outBounds[3] = t.position.y + hy;
+    }
+}
@@ -0,0 +1,146 @@
+package render;
+
+import components.SpriteRenderer;
+import engine.Transform;
+import org.joml.Vector2f;
+import org.lwjgl.BufferUtils;
+import util.AssetPool;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static render.InstanceData.*;
+import static util.Constants.DEFAULT_FRAGMENT_SHADER;
+import static util.Constants.INSTANCED_VERTEX_SHADER;
+
+/**
+ * Batch kreslící sprity instancingem: jeden statický quad + proud dat instancí
+ * (InstanceData, 19 floatů na sprite místo 4 x 12 rozepsaných vrcholů).
+ * Sprity s vlastními vrcholy (ShapeRenderer) umí jen RenderBatch.
+ */
+public class InstancedRenderBatch extends SpriteBatch {
+    private float[] instanceArray;
+
+    private int vaoID, quadVboID, eboID, instanceVboID;
+
+    private VertexUploadStrategy uploadStrategy;
+    private DirtyRanges dirtyRanges;
+    private FloatBuffer instanceUploadBuffer;
+
+    private final float[] bounds = new float[4];
+
+    public InstancedRenderBatch(int maxBatchSize, int zIndex, Renderer renderer) {
+        super(maxBatchSize, zIndex, renderer);
+        shader = AssetPool.getShader(INSTANCED_VERTEX_SHADER, DEFAULT_FRAGMENT_SHADER);
+        this.instanceArray = new float[maxBatchSize * INSTANCE_SIZE];
+        this.dirtyRanges = new DirtyRanges(8, 4 * INSTANCE_SIZE);
+        this.uploadStrategy = renderer.getVertexUploadStrategy();
+    }
+
+    public static boolean canInstance(SpriteRenderer sprite) {
+        Vector2f[] verts = sprite.getCustomVertices();
+        return verts == null || verts.length == 0;
+    }
+
+    @Override
+    public void start() {
+        GraphicsBackend gl = Renderer.getBackend();
+        vaoID = gl.genVertexArray();
+        Renderer.getState().bindVertexArray(vaoID);
+
+        quadVboID = gl.genBuffer();
+        gl.bindBuffer(GL_ARRAY_BUFFER, quadVboID);
+        gl.bufferData(GL_ARRAY_BUFFER, UNIT_QUAD, GL_STATIC_DRAW);
+        gl.vertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+        gl.enableVertexAttribArray(0);
+
+        eboID = gl.genBuffer();
+        gl.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboID);
+        gl.bufferData(GL_ELEMENT_ARRAY_BUFFER, UNIT_QUAD_INDICES, GL_STATIC_DRAW);
+
+        instanceVboID = gl.genBuffer();
+        gl.bindBuffer(GL_ARRAY_BUFFER, instanceVboID);
+        uploadStrategy.allocate(gl, instanceArray.length * Float.BYTES);
+        instanceUploadBuffer = BufferUtils.createFloatBuffer(instanceArray.length);
+
+        instanceAttribute(1, 2, POSITION_OFFSET);
+        instanceAttribute(2, 2, SCALE_OFFSET);
+        instanceAttribute(3, 1, ROTATION_OFFSET);
+        instanceAttribute(4, 4, COLOR_OFFSET);
+        instanceAttribute(5, 4, UV_RECT_OFFSET);
+        instanceAttribute(6, 4, LOCAL_RECT_OFFSET);
+        instanceAttribute(7, 1, TEX_ID_OFFSET);
+        instanceAttribute(8, 1, ROUNDNESS_OFFSET);
+    }
+
+    private void instanceAttribute(int location, int size, int offsetFloats) {
+        GraphicsBackend gl = Renderer.getBackend();
+        gl.vertexAttribPointer(location, size, GL_FLOAT, false, INSTANCE_SIZE_BYTES, (long) offsetFloats * Float.BYTES);
+        gl.enableVertexAttribArray(location);
+        gl.vertexAttribDivisor(location, 1);
+    }
+
+    @Override
+    protected boolean accepts(SpriteRenderer sprite) {
+        return canInstance(sprite);
+    }
+
+    @Override
+    protected void loadSprite(int index) {
+        SpriteRenderer sprite = sprites[index];
+        Transform t = sprite.gameObject.transform;
+        Texture texture = sprite.getTexture();
+
+        int offset = index * INSTANCE_SIZE;
+        pack(instanceArray, offset, t, sprite.getColor(), sprite.getTexCoords(), texture,
+                textureId(texture), visible[index]);
+        dirtyRanges.add(offset, offset + INSTANCE_SIZE);
+
+        InstanceData.bounds(t, bounds);
+        updateBounds(index, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    @Override
+    protected void onSpriteAdded(int index) {
+        loadSprite(index);
+    }
+
+    // Instance jsou v poli podle slotu, přesunutý sprite je už dirty a počet instancí je numSprites
+    @Override
+    protected void onSpriteRemoved(int index, int last, boolean sameVisibility) {
+    }
+
+    // Instance nemají index buffer, ořezané se přepíšou s nulovým měřítkem
+    @Override
+    protected void onVisibilityChanged(int firstChanged) {
+        for (int i = firstChanged; i < numSprites; i++) {
+            float scaleX = instanceArray[i * INSTANCE_SIZE + SCALE_OFFSET];
+            float scaleY = instanceArray[i * INSTANCE_SIZE + SCALE_OFFSET + 1];
+            boolean packedVisible = scaleX != 0.0f || scaleY != 0.0f;
+            if (packedVisible != visible[i]) loadSprite(i);
+        }
+    }
+
+    @Override
+    protected void uploadData() {
+        if (dirtyRanges.isEmpty()) return;
+        GraphicsBackend gl = Renderer.getBackend();
+        gl.bindBuffer(GL_ARRAY_BUFFER, instanceVboID);
+        int bytes = uploadStrategy.upload(gl, instanceArray, numSprites * INSTANCE_SIZE, dirtyRanges, instanceUploadBuffer);
+        if (bytes > 0) recordUpload(bytes);
+        dirtyRanges.clear();
+    }
+
+    @Override
+    protected void draw() {
+        Renderer.getState().bindVertexArray(vaoID);
+        Renderer.getBackend().drawElementsInstanced(GL_TRIANGLES, UNIT_QUAD_INDICES.length, GL_UNSIGNED_INT, 0, numSprites);
+    }
+
+    @Override
+    public boolean isInstanced() {
+        return true;
+    }
+}
@@ -0,0 +1,255 @@
+package render;
+
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawElementsInstanced;
+import static org.lwjgl.opengl.GL31.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31.glUniformBlockBinding;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+public class OpenGLBackend implements GraphicsBackend {
+
+    @Override
+    public int genBuffer() {
+        return glGenBuffers();
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        glBindBuffer(target, buffer);
+    }
+
+    @Override
+    public void bufferData(int target, long sizeBytes, int usage) {
+        glBufferData(target, sizeBytes, usage);
+    }
+
+    @Override
+    public void bufferData(int target, float[] data, int usage) {
+        glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(int target, int[] data, int usage) {
+        glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offsetBytes, FloatBuffer data) {
+        glBufferSubData(target, offsetBytes, data);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offsetBytes, IntBuffer data) {
+        glBufferSubData(target, offsetBytes, data);
+    }
+
+    @Override
+    public void bindBufferBase(int target, int index, int buffer) {
+        glBindBufferBase(target, index, buffer);
+    }
+
+    @Override
+    public int genVertexArray() {
+        return glGenVertexArrays();
+    }
+
+    @Override
+    public void bindVertexArray(int vao) {
+        glBindVertexArray(vao);
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int strideBytes, long offsetBytes) {
+        glVertexAttribPointer(index, size, type, normalized, strideBytes, offsetBytes);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        glEnableVertexAttribArray(index);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        glDisableVertexAttribArray(index);
+    }
+
+    @Override
+    public void vertexAttribDivisor(int index, int divisor) {
+        glVertexAttribDivisor(index, divisor);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long offsetBytes) {
+        glDrawElements(mode, count, type, offsetBytes);
+    }
+
+    @Override
+    public void drawElementsInstanced(int mode, int count, int type, long offsetBytes, int instances) {
+        glDrawElementsInstanced(mode, count, type, offsetBytes, instances);
+    }
+
+    @Override
+    public void drawArrays(int mode, int first, int count) {
+        glDrawArrays(mode, first, count);
+    }
+
+    @Override
+    public void lineWidth(float width) {
+        glLineWidth(width);
+    }
+
+    @Override
+    public int genTexture() {
+        return glGenTextures();
+    }
+
+    @Override
+    public void activeTexture(int unit) {
+        glActiveTexture(unit);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        glBindTexture(target, texture);
+    }
+
+    @Override
+    public void texParameteri(int target, int name, int value) {
+        glTexParameteri(target, name, value);
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalFormat, int width, int height,
+                           int format, int type, ByteBuffer pixels) {
+        glTexImage2D(target, level, internalFormat, width, height, 0, format, type, pixels);
+    }
+
+    @Override
+    public int createShader(int type) {
+        return glCreateShader(type);
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        glShaderSource(shader, source);
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        glCompileShader(shader);
+    }
+
+    @Override
+    public int getShaderi(int shader, int name) {
+        return glGetShaderi(shader, name);
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        return glGetShaderInfoLog(shader);
+    }
+
+    @Override
+    public int createProgram() {
+        return glCreateProgram();
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        glAttachShader(program, shader);
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        glLinkProgram(program);
+    }
+
+    @Override
+    public int getProgrami(int program, int name) {
+        return glGetProgrami(program, name);
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        return glGetProgramInfoLog(program);
+    }
+
+    @Override
+    public void useProgram(int program) {
+        glUseProgram(program);
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        return glGetUniformLocation(program, name);
+    }
+
+    @Override
+    public String getActiveUniformName(int program, int index) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            return glGetActiveUniform(program, index, stack.mallocInt(1), stack.mallocInt(1));
+        }
+    }
+
+    @Override
+    public int getUniformBlockIndex(int program, CharSequence name) {
+        return glGetUniformBlockIndex(program, name);
+    }
+
+    @Override
+    public void uniformBlockBinding(int program, int blockIndex, int binding) {
+        glUniformBlockBinding(program, blockIndex, binding);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        glUniformMatrix4fv(location, transpose, value);
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+        glUniformMatrix3fv(location, transpose, value);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        glUniform4f(location, x, y, z, w);
+    }
+
+    @Override
+    public void uniform3f(int location, float x, float y, float z) {
+        glUniform3f(location, x, y, z);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        glUniform2f(location, x, y);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        glUniform1f(location, value);
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        glUniform1i(location, value);
+    }
+
+    @Override
+    public void uniform1iv(int location, int[] value) {
+        glUniform1iv(location, value);
+    }
+}
@@ -0,0 +1,30 @@
+package render;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
+
+/**
+ * Streamování s osiřením bufferu: před zápisem se zavolá glBufferData bez dat, driver
+ * přidělí nové úložiště a staré nechá GPU dočíst, takže zápis nečeká na předchozí draw.
+ * Nový buffer je prázdný, proto se vždy nahrává celá použitá část vertexArray.
+ */
+public class OrphaningUploadStrategy implements VertexUploadStrategy {
+
+    @Override
+    public void allocate(GraphicsBackend gl, int capacityBytes) {
+        gl.bufferData(GL_ARRAY_BUFFER, capacityBytes, GL_STREAM_DRAW);
+    }
+
+    @Override
+    public int upload(GraphicsBackend gl, float[] vertexArray, int usedFloats, DirtyRanges dirty, FloatBuffer staging) {
+        if (usedFloats == 0) return 0;
+
+        gl.bufferData(GL_ARRAY_BUFFER, (long) vertexArray.length * Float.BYTES, GL_STREAM_DRAW);
+        staging.clear();
+        staging.put(vertexArray, 0, usedFloats).flip();
+        gl.bufferSubData(GL_ARRAY_BUFFER, 0, staging);
+        return usedFloats * Float.BYTES;
+    }
+}
@@ -0,0 +1,338 @@
+package render;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.GL_TRUE;
+import static org.lwjgl.opengl.GL20.GL_ACTIVE_UNIFORMS;
+
+// Backend bez GPU – nic nevykresluje, jen si zapisuje sekvenci volání, draw cally a objem nahraných dat
+public class RecordingBackend implements GraphicsBackend {
+
+    public static class Call {
+        public final String name;
+        public final long[] args;
+
+        Call(String name, long... args) {
+            this.name = name;
+            this.args = args;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(name).append('(');
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(args[i]);
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    private final List<Call> calls = new ArrayList<>();
+    private final Map<String, Integer> uniformLocations = new HashMap<>();
+    private boolean recording = true;
+    private long bytesUploaded = 0;
+    private long textureBytes = 0;
+    private int drawCalls = 0;
+    private int nextId = 1;
+
+    private void record(String name, long... args) {
+        if (recording) calls.add(new Call(name, args));
+    }
+
+    // ==================================================
+    // Buffery
+    // ==================================================
+    @Override
+    public int genBuffer() {
+        record("genBuffer");
+        return nextId++;
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        record("bindBuffer", target, buffer);
+    }
+
+    @Override
+    public void bufferData(int target, long sizeBytes, int usage) {
+        record("bufferData", target, sizeBytes, usage);
+    }
+
+    @Override
+    public void bufferData(int target, float[] data, int usage) {
+        long bytes = (long) data.length * Float.BYTES;
+        bytesUploaded += bytes;
+        record("bufferData", target, bytes, usage);
+    }
+
+    @Override
+    public void bufferData(int target, int[] data, int usage) {
+        long bytes = (long) data.length * Integer.BYTES;
+        bytesUploaded += bytes;
+        record("bufferData", target, bytes, usage);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offsetBytes, FloatBuffer data) {
+        long bytes = (long) data.remaining() * Float.BYTES;
+        bytesUploaded += bytes;
+        record("bufferSubData", target, offsetBytes, bytes);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offsetBytes, IntBuffer data) {
+        long bytes = (long) data.remaining() * Integer.BYTES;
+        bytesUploaded += bytes;
+        record("bufferSubData", target, offsetBytes, bytes);
+    }
+
+    @Override
+    public void bindBufferBase(int target, int index, int buffer) {
+        record("bindBufferBase", target, index, buffer);
+    }
+
+    // ==================================================
+    // Vertex array
+    // ==================================================
+    @Override
+    public int genVertexArray() {
+        record("genVertexArray");
+        return nextId++;
+    }
+
+    @Override
+    public void bindVertexArray(int vao) {
+        record("bindVertexArray", vao);
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int strideBytes, long offsetBytes) {
+        record("vertexAttribPointer", index, size, type, normalized ? 1 : 0, strideBytes, offsetBytes);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        record("enableVertexAttribArray", index);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        record("disableVertexAttribArray", index);
+    }
+
+    @Override
+    public void vertexAttribDivisor(int index, int divisor) {
+        record("vertexAttribDivisor", index, divisor);
+    }
+
+    // ==================================================
+    // Kreslení
+    // ==================================================
+    @Override
+    public void drawElements(int mode, int count, int type, long offsetBytes) {
+        drawCalls++;
+        record("drawElements", mode, count, type, offsetBytes);
+    }
+
+    @Override
+    public void drawElementsInstanced(int mode, int count, int type, long offsetBytes, int instances) {
+        drawCalls++;
+        record("drawElementsInstanced", mode, count, type, offsetBytes, instances);
+    }
+
+    @Override
+    public void drawArrays(int mode, int first, int count) {
+        drawCalls++;
+        record("drawArrays", mode, first, count);
+    }
+
+    @Override
+    public void lineWidth(float width) {
+        record("lineWidth", Float.floatToIntBits(width));
+    }
+
+    // ==================================================
+    // Textury
+    // ==================================================
+    @Override
+    public int genTexture() {
+        record("genTexture");
+        return nextId++;
+    }
+
+    @Override
+    public void activeTexture(int unit) {
+        record("activeTexture", unit);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        record("bindTexture", target, texture);
+    }
+
+    @Override
+    public void texParameteri(int target, int name, int value) {
+        record("texParameteri", target, name, value);
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalFormat, int width, int height,
+                           int format, int type, ByteBuffer pixels) {
+        long bytes = pixels != null ? pixels.remaining() : 0;
+        textureBytes += bytes;
+        record("texImage2D", target, level, internalFormat, width, height, bytes);
+    }
+
+    // ==================================================
+    // Shadery – kompilace i linkování vždy "uspějí"
+    // ==================================================
+    @Override
+    public int createShader(int type) {
+        record("createShader", type);
+        return nextId++;
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        record("shaderSource", shader);
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        record("compileShader", shader);
+    }
+
+    @Override
+    public int getShaderi(int shader, int name) {
+        return GL_TRUE;
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        return "";
+    }
+
+    @Override
+    public int createProgram() {
+        record("createProgram");
+        return nextId++;
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        record("attachShader", program, shader);
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        record("linkProgram", program);
+    }
+
+    @Override
+    public int getProgrami(int program, int name) {
+        // bez výčtu aktivních uniformů, lokace se přidělují při dotazu
+        return name == GL_ACTIVE_UNIFORMS ? 0 : GL_TRUE;
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        return "";
+    }
+
+    @Override
+    public void useProgram(int program) {
+        record("useProgram", program);
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        record("getUniformLocation", program);
+        return uniformLocations.computeIfAbsent(program + ":" + name, k -> uniformLocations.size());
+    }
+
+    @Override
+    public String getActiveUniformName(int program, int index) {
+        return "";
+    }
+
+    @Override
+    public int getUniformBlockIndex(int program, CharSequence name) {
+        record("getUniformBlockIndex", program);
+        return 0;
+    }
+
+    @Override
+    public void uniformBlockBinding(int program, int blockIndex, int binding) {
+        record("uniformBlockBinding", program, blockIndex, binding);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        record("uniformMatrix4fv", location);
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, boolean transpose, FloatBuffer value) {
+        record("uniformMatrix3fv", location);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        record("uniform4f", location);
+    }
+
+    @Override
+    public void uniform3f(int location, float x, float y, float z) {
+        record("uniform3f", location);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        record("uniform2f", location);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        record("uniform1f", location);
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        record("uniform1i", location, value);
+    }
+
+    @Override
+    public void uniform1iv(int location, int[] value) {
+        record("uniform1iv", location, value.length);
+    }
+
+    public List<Call> getCalls() { return calls; }
+
+    public List<String> getCallNames() {
+        List<String> names = new ArrayList<>(calls.size());
+        for (Call c : calls) names.add(c.name);
+        return names;
+    }
+
+    public long getBytesUploaded() { return bytesUploaded; }
+    public long getTextureBytes() { return textureBytes; }
+    public int getDrawCalls() { return drawCalls; }
+
+    // při dlouhých bězích (benchmarky) se seznam volání nemusí plnit
+    public void setRecording(boolean recording) { this.recording = recording; }
+
+    // Nuluje počítadla a záznam; id objektů a lokace uniformů zůstávají
+    public void reset() {
+        calls.clear();
+        bytesUploaded = 0;
+        textureBytes = 0;
+        drawCalls = 0;
+    }
+}
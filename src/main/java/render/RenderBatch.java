@@ -1,210 +1,174 @@
 package render;
 
 import components.SpriteRenderer;
-import engine.GameObject;
 import engine.Transform;
-import engine.Window;
-import org.jetbrains.annotations.NotNull;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
 import util.AssetPool;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
 import static util.Constants.*;
 
-public class RenderBatch implements Comparable<RenderBatch> {
-    private SpriteRenderer[] sprites;
-    private int numSprites;
-    private boolean hasRoom;
+public class RenderBatch extends SpriteBatch {
     private float[] vertexArray;
-    private int[] texSlots = {0, 1, 2, 3, 4, 5, 6, 7};
 
     private int vaoID, vboID, eboID;
-    private int maxBatchSize;
-    private Shader shader;
-    private List<Texture> textures;
-    private int zIndex;
 
-    private Renderer renderer;
+    private VertexUploadStrategy uploadStrategy;
 
-    private boolean isDirty = false;
+    private DirtyRanges dirtyRanges;
+    private FloatBuffer vertexUploadBuffer;
 
-    public RenderBatch(int maxBatchSize, int zIndex, Renderer renderer) {
-        this.zIndex = zIndex;
-        shader = AssetPool.getShader(DEFAULT_VERTEX_SHADER, DEFAULT_FRAGMENT_SHADER);
-        this.maxBatchSize = maxBatchSize;
-        this.sprites = new SpriteRenderer[maxBatchSize];
-        this.vertexArray = new float[maxBatchSize * MAX_VERTS_PER_SPRITE * VERTEX_SIZE];
-        this.numSprites = 0;
-        this.hasRoom = true;
-        this.textures = new ArrayList<>();
-        this.renderer = renderer;
-    }
-
-    public void start() {
-        vaoID = glGenVertexArrays();
-        glBindVertexArray(vaoID);
-
-        vboID = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboID);
-        glBufferData(GL_ARRAY_BUFFER, vertexArray.length * Float.BYTES, GL_DYNAMIC_DRAW);
-
-        eboID = glGenBuffers();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboID);
-
-        glVertexAttribPointer(0, POSITION_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, POSITION_OFFSET);
-        glEnableVertexAttribArray(0);
-        glVertexAttribPointer(1, COLOR_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, COLOR_OFFSET);
-        glEnableVertexAttribArray(1);
-        glVertexAttribPointer(2, TEXCOORD_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, TEXCOORD_OFFSET);
-        glEnableVertexAttribArray(2);
-        glVertexAttribPointer(3, TEX_ID_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, TEX_ID_OFFSET);
-        glEnableVertexAttribArray(3);
-        glVertexAttribPointer(4, ROUNDNESS_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, ROUNDNESS_OFFSET);
-        glEnableVertexAttribArray(4);
-    }
-
-    public void render() {
-        boolean rebuffer = false;
-        for (int i = 0; i < numSprites; i++) {
-            SpriteRenderer sprite = sprites[i];
-            if (sprites[i].isDirty()) {
-                loadVertexProperties(i);
-                updateEBO();
-                sprites[i].setClean();
-                rebuffer = true;
-            }
-            if (sprite.gameObject.getZIndex() != this.zIndex) {
-                destroyIfExists(sprite.gameObject);
-                renderer.add(sprite.gameObject);
-                sprite.gameObject.start();
-                System.out.println("Textura: " + sprite.getTexture());
-                i --;
-            }
+    // Offset (ve floatech) a počet vrcholů každého spritu ve vertexArray
+    private int[] vertexOffsets;
+    private int[] vertexCounts;
 
+    private IndexBuffer indexBuffer;
+    private IntBuffer indexUploadBuffer;
 
-        }
-        if (rebuffer) {
-            glBindBuffer(GL_ARRAY_BUFFER, vboID);
-            glBufferSubData(GL_ARRAY_BUFFER, 0, vertexArray);
-        }
-        if (isDirty) {
-            glBindBuffer(GL_ARRAY_BUFFER, vboID);
-            glBufferSubData(GL_ARRAY_BUFFER, 0, vertexArray);
-            isDirty = false;
-        }
-
-        shader.use();
-        shader.uploadMat4f("uProjection", Window.getView().camera().getProjectionMatrix());
-        shader.uploadMat4f("uView", Window.getView().camera().getViewMatrix());
+    private static final Vector2f[] DEFAULT_QUAD = {
+            new Vector2f(-0.5f, -0.5f),
+            new Vector2f( 0.5f, -0.5f),
+            new Vector2f( 0.5f,  0.5f),
+            new Vector2f(-0.5f,  0.5f)
+    };
 
-        for (int i = 0; i < textures.size(); i++) {
-            glActiveTexture(GL_TEXTURE0 + i + 1);
-            textures.get(i).bind();
-        }
-        shader.uploadIntArray("uTextures", texSlots);
+    private static final Vector2f[] DEFAULT_QUAD_TEX_COORDS = {
+            new Vector2f(0, 1),
+            new Vector2f(1, 1),
+            new Vector2f(1, 0),
+            new Vector2f(0, 0)
+    };
 
-        glBindVertexArray(vaoID);
-        glEnableVertexAttribArray(0);
-        glEnableVertexAttribArray(1);
+    private static final Vector2f[] DEFAULT_TRIANGLES_TEX_COORDS = {
+            new Vector2f(0, 1),
+            new Vector2f(1, 1),
+            new Vector2f(1, 0),
 
-        int indexCount = 0;
-        for (int i = 0; i < numSprites; i++) {
-            Vector2f[] verts = sprites[i].getCustomVertices();
-            indexCount += (verts != null && verts.length == 3) ? 3 : 6;
-        }
+            new Vector2f(0, 1),
+            new Vector2f(1, 0),
+            new Vector2f(0, 0)
+    };
 
-        glDrawElements(GL_TRIANGLES, indexCount, GL_UNSIGNED_INT, 0);
+    public RenderBatch(int maxBatchSize, int zIndex, Renderer renderer) {
+        super(maxBatchSize, zIndex, renderer);
+        shader = AssetPool.getShader(DEFAULT_VERTEX_SHADER, DEFAULT_FRAGMENT_SHADER);
+        this.vertexArray = new float[maxBatchSize * MAX_VERTS_PER_SPRITE * VERTEX_SIZE];
+        this.vertexOffsets = new int[maxBatchSize];
+        this.vertexCounts = new int[maxBatchSize];
+        this.indexBuffer = new IndexBuffer(maxBatchSize);
+        this.dirtyRanges = new DirtyRanges(8, 4 * MAX_VERTS_PER_SPRITE * VERTEX_SIZE);
+        this.uploadStrategy = renderer.getVertexUploadStrategy();
+    }
 
-        glDisableVertexAttribArray(0);
-        glDisableVertexAttribArray(1);
-        glBindVertexArray(0);
+    @Override
+    public void start() {
+        GraphicsBackend gl = Renderer.getBackend();
+        vaoID = gl.genVertexArray();
+        Renderer.getState().bindVertexArray(vaoID);
+
+        vboID = gl.genBuffer();
+        gl.bindBuffer(GL_ARRAY_BUFFER, vboID);
+        uploadStrategy.allocate(gl, vertexArray.length * Float.BYTES);
+        vertexUploadBuffer = BufferUtils.createFloatBuffer(vertexArray.length);
+
+        eboID = gl.genBuffer();
+        gl.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboID);
+        gl.bufferData(GL_ELEMENT_ARRAY_BUFFER, (long) indexBuffer.getCapacity() * Integer.BYTES, GL_DYNAMIC_DRAW);
+        indexUploadBuffer = BufferUtils.createIntBuffer(indexBuffer.getCapacity());
+
+        gl.vertexAttribPointer(0, POSITION_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, POSITION_OFFSET);
+        gl.enableVertexAttribArray(0);
+        gl.vertexAttribPointer(1, COLOR_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, COLOR_OFFSET);
+        gl.enableVertexAttribArray(1);
+        gl.vertexAttribPointer(2, TEXCOORD_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, TEXCOORD_OFFSET);
+        gl.enableVertexAttribArray(2);
+        gl.vertexAttribPointer(3, TEX_ID_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, TEX_ID_OFFSET);
+        gl.enableVertexAttribArray(3);
+        gl.vertexAttribPointer(4, ROUNDNESS_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, ROUNDNESS_OFFSET);
+        gl.enableVertexAttribArray(4);
+        gl.vertexAttribPointer(5, LOCAL_COORD_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, LOCAL_COORD_OFFSET);
+        gl.enableVertexAttribArray(5);
+    }
 
-        for (Texture texture : textures) texture.unbind();
-        shader.detach();
+    // Při změně viditelnosti se přegenerují indexy od první změny, vertex data zůstávají
+    @Override
+    protected void onVisibilityChanged(int firstChanged) {
+        indexBuffer.rebuild(firstChanged, numSprites, vertexCounts, visible);
     }
 
-    public void addSprite(SpriteRenderer sprite) {
-        sprites[numSprites] = sprite;
-        numSprites++;
+    @Override
+    protected void uploadData() {
+        if (!dirtyRanges.isEmpty()) uploadVertices();
+    }
 
-        if (sprite.getTexture() != null && !textures.contains(sprite.getTexture()))
-            textures.add(sprite.getTexture());
+    @Override
+    protected void draw() {
+        // atributy jsou zapnuté ve VAO od start(), VAO zůstává bindnuté do další batche
+        Renderer.getState().bindVertexArray(vaoID);
 
-        loadVertexProperties(numSprites - 1);
-        updateEBO();
-        rebuildTextures();
+        // EBO je součástí stavu VAO, proto se nahrává až po jeho bindnutí
+        if (indexBuffer.isDirty()) uploadIndices();
 
-        if (numSprites >= maxBatchSize) hasRoom = false;
+        Renderer.getBackend().drawElements(GL_TRIANGLES, indexBuffer.getIndexCount(), GL_UNSIGNED_INT, 0);
+    }
 
-        isDirty = true;
+    @Override
+    public boolean isInstanced() {
+        return false;
     }
 
+    @Override
+    protected void onSpriteAdded(int index) {
+        vertexCounts[index] = vertexCount(sprites[index]);
+        vertexOffsets[index] = index == 0 ? 0
+                : vertexOffsets[index - 1] + vertexCounts[index - 1] * VERTEX_SIZE;
 
+        indexBuffer.rebuild(index, numSprites, vertexCounts, visible);
+        loadSprite(index);
+    }
 
-    private void loadVertexProperties(int index) {
+    @Override
+    protected void loadSprite(int index) {
         SpriteRenderer sprite = sprites[index];
         Vector2f[] verts = sprite.getCustomVertices();
-        if (verts == null || verts.length == 0) {
-            verts = new Vector2f[]{
-                    new Vector2f(-0.5f, -0.5f),
-                    new Vector2f( 0.5f, -0.5f),
-                    new Vector2f( 0.5f,  0.5f),
-                    new Vector2f(-0.5f,  0.5f)
-            };
-        }
-
-
-        int offset = 0;
-        for (int i = 0; i < index; i++) {
-            Vector2f[] prevVerts = sprites[i].getCustomVertices();
-            offset += (prevVerts != null ? prevVerts.length : 4) * VERTEX_SIZE;
+        if (verts == null || verts.length == 0) verts = DEFAULT_QUAD;
 
+        // počet vrcholů se změnil (jiný tvar) => posunout offsety následujících spritů
+        if (verts.length != vertexCounts[index]) {
+            vertexCounts[index] = verts.length;
+            relayout(index + 1);
+            indexBuffer.rebuild(index, numSprites, vertexCounts, visible);
         }
 
+        int offset = vertexOffsets[index];
+
         Transform t = sprite.gameObject.transform;
         Vector4f color = sprite.getColor();
 
-        int texID = 0;
-        if (sprite.getTexture() != null) {
-            for (int i = 0; i < textures.size(); i++)
-                if (textures.get(i).getFilePath().equals(sprite.getTexture().getFilePath()))
-                    texID = i + 1;
-        }
+        // sprity z atlasu se bindují přes stránku atlasu a jejich tex coords se do ní přemapují
+        Texture texture = sprite.getTexture();
+        int texID = textureId(texture);
 
         Vector2f[] texCoords = sprite.getTexCoords();
         if (texCoords == null || texCoords.length < verts.length) {
-            if (verts.length == 6) {
-                texCoords = new Vector2f[]{
-                        new Vector2f(0, 1),
-                        new Vector2f(1, 1),
-                        new Vector2f(1, 0),
-
-                        new Vector2f(0, 1),
-                        new Vector2f(1, 0),
-                        new Vector2f(0, 0)
-                };
-            } else {
-                texCoords = new Vector2f[]{
-                        new Vector2f(0, 1),
-                        new Vector2f(1, 1),
-                        new Vector2f(1, 0),
-                        new Vector2f(0, 0)
-                };
-            }
+            texCoords = verts.length == 6 ? DEFAULT_TRIANGLES_TEX_COORDS : DEFAULT_QUAD_TEX_COORDS;
         }
 
-
         float cx = t.position.x;
         float cy = t.position.y;
         float cos = (float) Math.cos(t.rotation);
         float sin = (float) Math.sin(t.rotation);
 
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
         for (int i = 0; i < verts.length; i++) {
             float localX = verts[i].x * t.scale.x;
             float localY = verts[i].y * t.scale.y;
@@ -214,114 +178,91 @@ public class RenderBatch implements Comparable<RenderBatch> {
             float rx = localX * cos - localY * sin;
             float ry = localX * sin + localY * cos;
 
+            minX = Math.min(minX, rx);
+            minY = Math.min(minY, ry);
+            maxX = Math.max(maxX, rx);
+            maxY = Math.max(maxY, ry);
+
             vertexArray[offset]     = rx + cx;
             vertexArray[offset + 1] = ry + cy;
             vertexArray[offset + 2] = color.x;
             vertexArray[offset + 3] = color.y;
             vertexArray[offset + 4] = color.z;
             vertexArray[offset + 5] = color.w;
-            vertexArray[offset + 6] = texCoords[i].x;
-            vertexArray[offset + 7] = texCoords[i].y;
+            vertexArray[offset + 6] = texture != null ? texture.mapU(texCoords[i].x) : texCoords[i].x;
+            vertexArray[offset + 7] = texture != null ? texture.mapV(texCoords[i].y) : texCoords[i].y;
             vertexArray[offset + 8] = texID;
             vertexArray[offset + 9] = t.roundness;
+            vertexArray[offset + 10] = texCoords[i].x;
+            vertexArray[offset + 11] = texCoords[i].y;
 
             offset += VERTEX_SIZE;
         }
 
+        dirtyRanges.add(vertexOffsets[index], offset);
+        updateBounds(index, minX + cx, minY + cy, maxX + cx, maxY + cy);
     }
 
+    private static int vertexCount(SpriteRenderer sprite) {
+        Vector2f[] verts = sprite.getCustomVertices();
+        return (verts == null || verts.length == 0) ? 4 : verts.length;
+    }
 
-
-    private void updateEBO() {
-        List<Integer> indicesList = new ArrayList<>();
-        int vertexOffset = 0;
-
-        for (int i = 0; i < numSprites; i++) {
-            SpriteRenderer sprite = sprites[i];
-            Vector2f[] verts = sprite.getCustomVertices();
-            int vertCount = (verts != null) ? verts.length : 4;
-
-            if (vertCount == 3) {
-                // Trojúhelník
-                indicesList.add(vertexOffset);
-                indicesList.add(vertexOffset + 1);
-                indicesList.add(vertexOffset + 2);
-            } else if (vertCount >= 4) {
-                // Quad => dva trojúhelníky
-                indicesList.add(vertexOffset);
-                indicesList.add(vertexOffset + 1);
-                indicesList.add(vertexOffset + 2);
-
-                indicesList.add(vertexOffset);
-                indicesList.add(vertexOffset + 2);
-                indicesList.add(vertexOffset + 3);
+    // Přepočítá offsety od indexu 'from' dál; sprity, jejichž data se posunula, se musí znovu nahrát
+    private void relayout(int from) {
+        int offset = from == 0 ? 0 : vertexOffsets[from - 1] + vertexCounts[from - 1] * VERTEX_SIZE;
+        for (int i = from; i < numSprites; i++) {
+            if (vertexOffsets[i] != offset) {
+                vertexOffsets[i] = offset;
+                sprites[i].setDirty();
             }
-
-            vertexOffset += vertCount;
+            offset += vertexCounts[i] * VERTEX_SIZE;
         }
-
-        int[] indices = indicesList.stream().mapToInt(Integer::intValue).toArray();
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboID);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
     }
 
 
-    public boolean hasRoom() { return hasRoom; }
-    public boolean hasTextureRoom() {
-        return textures.size() < 8;
-    }
-
-    public boolean hasTexture(Texture texture) { return textures.contains(texture); }
-    public int getZIndex() { return zIndex; }
 
-    @Override
-    public int compareTo(@NotNull RenderBatch o) { return Integer.compare(this.zIndex, o.zIndex); }
-
-    public void removeSprite(SpriteRenderer sprite) {
-        for (int i = 0; i < numSprites; i++) {
-            if (sprites[i] == sprite) {
-                for (int j = i; j < numSprites - 1; j++)
-                    sprites[j] = sprites[j + 1];
-                sprites[numSprites - 1] = null;
-                numSprites--;
-                hasRoom = true;
-                updateEBO();
-                break;
-            }
-        }
+    // Co a jak se nahraje rozhoduje uploadStrategy (výchozí: jen změněné rozsahy)
+    private void uploadVertices() {
+        GraphicsBackend gl = Renderer.getBackend();
+        gl.bindBuffer(GL_ARRAY_BUFFER, vboID);
+        int usedFloats = numSprites == 0 ? 0
+                : vertexOffsets[numSprites - 1] + vertexCounts[numSprites - 1] * VERTEX_SIZE;
+        int bytes = uploadStrategy.upload(gl, vertexArray, usedFloats, dirtyRanges, vertexUploadBuffer);
+        if (bytes > 0) recordUpload(bytes);
+        dirtyRanges.clear();
     }
 
-    private void rebuildTextures() {
-        textures.clear();
-        for (int i = 0; i < numSprites; i++) {
-            Texture t = sprites[i].getTexture();
-            if (t != null && !textures.contains(t)) {
-                textures.add(t);
-            }
+    // Nahraje jen změněný rozsah indexů, celý EBO je alokovaný jednou ve start()
+    private void uploadIndices() {
+        GraphicsBackend gl = Renderer.getBackend();
+        int start = indexBuffer.getDirtyStart();
+        int count = Math.min(indexBuffer.getDirtyEnd(), indexBuffer.getIndexCount()) - start;
+        if (count > 0) {
+            indexUploadBuffer.clear();
+            indexUploadBuffer.put(indexBuffer.getIndices(), start, count).flip();
+            gl.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboID);
+            gl.bufferSubData(GL_ELEMENT_ARRAY_BUFFER, (long) start * Integer.BYTES, indexUploadBuffer);
+            recordUpload(count * Integer.BYTES);
         }
+        indexBuffer.markClean();
     }
 
-
-    public boolean destroyIfExists(GameObject go) {
-        SpriteRenderer sprite = go.getComponent(SpriteRenderer.class);
-        for (int i=0; i < numSprites; i++) {
-            if (sprites[i] == sprite) {
-                for (int j=i; j < numSprites - 1; j++) {
-                    sprites[j] = sprites[j + 1];
-                    sprites[j].setDirty();
-                }
-                sprites[numSprites - 1] = null;
-                numSprites--;
-                hasRoom = true;
-                System.out.println("nicim: " + go);
-                rebuildTextures();
-                updateEBO();
-                isDirty = true;
-
-                return true;
-            }
+    /**
+     * Pokud má přesunutý sprite stejný počet vrcholů jako odebraný, vertexy i indexy slotu
+     * zůstávají platné a index buffer se jen zkrátí.
+     */
+    @Override
+    protected void onSpriteRemoved(int index, int last, boolean sameVisibility) {
+        boolean sameShape = vertexCounts[index] == vertexCounts[last];
+        vertexCounts[index] = vertexCounts[last];
+
+        if (index == last || (sameShape && sameVisibility)) {
+            indexBuffer.truncate(numSprites);
+        } else {
+            // jiný tvar => posun offsetů za slotem (jako dřív), jinak jen přepočet indexů
+            if (!sameShape) relayout(index + 1);
+            indexBuffer.rebuild(index, numSprites, vertexCounts, visible);
         }
-
-        return false;
     }
 }
@@ -0,0 +1,46 @@
+package render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Všechny batche jednoho z-indexu. Kromě seznamu pro vykreslení drží i seznam batchí,
+ * které mají volné místo, takže přidání spritu neprochází plné batche ani jiné vrstvy.
+ */
+public class RenderLayer {
+
+    private final int zIndex;
+    private final List<SpriteBatch> batches = new ArrayList<>();
+    private final List<SpriteBatch> open = new ArrayList<>();
+
+    public RenderLayer(int zIndex) {
+        this.zIndex = zIndex;
+    }
+
+    // Batch daného typu s místem pro sprite s danou texturou, nebo null
+    public SpriteBatch findBatch(Texture texture, boolean instanced) {
+        SpriteBatch withTextureRoom = null;
+        for (int i = 0; i < open.size(); i++) {
+            SpriteBatch batch = open.get(i);
+            if (batch.isInstanced() != instanced) continue;
+            if (texture == null || batch.hasTexture(texture)) return batch;
+            if (withTextureRoom == null && batch.hasTextureRoom()) withTextureRoom = batch;
+        }
+        return withTextureRoom;
+    }
+
+    public void addBatch(SpriteBatch batch) {
+        batches.add(batch);
+        if (batch.hasRoom()) open.add(batch);
+    }
+
+    // Zavolat po přidání/odebrání spritu, udržuje seznam batchí s volným místem
+    public void updateRoom(SpriteBatch batch) {
+        boolean listed = open.contains(batch);
+        if (batch.hasRoom() && !listed) open.add(batch);
+        else if (!batch.hasRoom() && listed) open.remove(batch);
+    }
+
+    public List<SpriteBatch> getBatches() { return batches; }
+    public int getZIndex() { return zIndex; }
+}
@@ -0,0 +1,107 @@
+package render;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+
+/**
+ * Stín GL stavu (program, aktivní texture unit, textury v unitech, VAO): změna se pošle
+ * backendu jen když se liší od posledního nastaveného stavu, jinak se jen započítá jako ušetřená.
+ * Kód mimo renderer, který mění stejný stav (imgui si ho obnovuje sám), musí zavolat invalidate().
+ */
+public class RenderState {
+    private static final int MAX_TEXTURE_UNITS = 16;
+    private static final int UNKNOWN = -1;
+
+    private int program = UNKNOWN;
+    private int activeUnit = UNKNOWN;
+    private final int[] textures = new int[MAX_TEXTURE_UNITS];
+    private int vao = UNKNOWN;
+
+    // Počítadla jednoho snímku (beginFrame je nuluje)
+    private int programChanges, programSkipped;
+    private int textureChanges, textureSkipped;
+    private int vaoChanges, vaoSkipped;
+    private int uniformsSkipped;
+
+    public RenderState() {
+        invalidate();
+    }
+
+    public void beginFrame() {
+        programChanges = programSkipped = 0;
+        textureChanges = textureSkipped = 0;
+        vaoChanges = vaoSkipped = 0;
+        uniformsSkipped = 0;
+        invalidate();
+    }
+
+    // Zapomene stínový stav, další nastavení se pošle vždy
+    public void invalidate() {
+        program = UNKNOWN;
+        activeUnit = UNKNOWN;
+        vao = UNKNOWN;
+        for (int i = 0; i < textures.length; i++) textures[i] = UNKNOWN;
+    }
+
+    public void useProgram(int programID) {
+        if (program == programID) {
+            programSkipped++;
+            return;
+        }
+        Renderer.getBackend().useProgram(programID);
+        program = programID;
+        programChanges++;
+    }
+
+    // Binduje do aktuálně aktivního unitu (jako glBindTexture)
+    public void bindTexture(int textureID) {
+        int unit = activeUnit == UNKNOWN ? 0 : activeUnit;
+        if (activeUnit != UNKNOWN && textures[unit] == textureID) {
+            textureSkipped++;
+            return;
+        }
+        Renderer.getBackend().bindTexture(GL_TEXTURE_2D, textureID);
+        if (activeUnit != UNKNOWN) textures[unit] = textureID;
+        textureChanges++;
+    }
+
+    // Bindne texturu do zadaného unitu; unit se přepíná jen když je bind opravdu potřeba
+    public void bindTexture(int unit, int textureID) {
+        if (textures[unit] == textureID) {
+            textureSkipped++;
+            return;
+        }
+        if (activeUnit != unit) {
+            Renderer.getBackend().activeTexture(GL_TEXTURE0 + unit);
+            activeUnit = unit;
+        }
+        Renderer.getBackend().bindTexture(GL_TEXTURE_2D, textureID);
+        textures[unit] = textureID;
+        textureChanges++;
+    }
+
+    public void bindVertexArray(int vaoID) {
+        if (vao == vaoID) {
+            vaoSkipped++;
+            return;
+        }
+        Renderer.getBackend().bindVertexArray(vaoID);
+        vao = vaoID;
+        vaoChanges++;
+    }
+
+    void uniformSkipped() {
+        uniformsSkipped++;
+    }
+
+    public int getProgramChanges() { return programChanges; }
+    public int getProgramSkipped() { return programSkipped; }
+    public int getTextureChanges() { return textureChanges; }
+    public int getTextureSkipped() { return textureSkipped; }
+    public int getVaoChanges() { return vaoChanges; }
+    public int getVaoSkipped() { return vaoSkipped; }
+    public int getUniformsSkipped() { return uniformsSkipped; }
+
+    public int getStateChanges() { return programChanges + textureChanges + vaoChanges; }
+    public int getStateChangesSkipped() { return programSkipped + textureSkipped + vaoSkipped + uniformsSkipped; }
+}
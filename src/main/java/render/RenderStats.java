@@ -0,0 +1,47 @@
+package render;
+
+// Počítadla jednoho snímku rendereru, nulují se na začátku Renderer.render()
+public class RenderStats {
+
+    private int bytesUploaded;
+    private int uploadCalls;
+    private int visibleSprites;
+    private int culledSprites;
+    private int drawnBatches;
+    private int skippedBatches;
+    private int drawCalls;
+
+    void reset() {
+        bytesUploaded = 0;
+        uploadCalls = 0;
+        visibleSprites = 0;
+        culledSprites = 0;
+        drawnBatches = 0;
+        skippedBatches = 0;
+        drawCalls = 0;
+    }
+
+    void addBatch(int sprites, int visible) {
+        visibleSprites += visible;
+        culledSprites += sprites - visible;
+        if (visible > 0) drawnBatches++;
+        else skippedBatches++;
+    }
+
+    void addDrawCall() {
+        drawCalls++;
+    }
+
+    void addUpload(int bytes) {
+        bytesUploaded += bytes;
+        uploadCalls++;
+    }
+
+    public int getBytesUploaded() { return bytesUploaded; }
+    public int getUploadCalls() { return uploadCalls; }
+    public int getVisibleSprites() { return visibleSprites; }
+    public int getCulledSprites() { return culledSprites; }
+    public int getDrawnBatches() { return drawnBatches; }
+    public int getSkippedBatches() { return skippedBatches; }
+    public int getDrawCalls() { return drawCalls; }
+}
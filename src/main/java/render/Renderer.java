@@ -1,30 +1,57 @@
 package render;
 
 import components.SpriteRenderer;
+import engine.Camera;
 import engine.GameObject;
 import engine.Window;
 import org.joml.Vector2f;
 import org.joml.Vector4f;
-import util.AssetPool;
+import project.Project;
+import project.ProjectManager;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.TreeMap;
 
-import static org.lwjgl.opengl.GL11.*;
 import static util.Constants.MAX_BATCH_SIZE;
 
 public class Renderer {
 
-    private List<RenderBatch> renderBatches;
-    private static Shader debugShader;
+    // z-index -> vrstva batchí; TreeMap zároveň určuje pořadí vykreslení
+    private final TreeMap<Integer, RenderLayer> layers = new TreeMap<>();
     private final List<SpriteRenderer> rebatchQueue = new ArrayList<>();
+    private final RenderStats stats = new RenderStats();
+    private VertexUploadStrategy vertexUploadStrategy = new SubDataUploadStrategy();
 
+    private static GraphicsBackend backend = new OpenGLBackend();
 
+    // Ladicí čáry (hitboxy, collidery, výběr) sbírané během snímku, kreslí je view na konci update
+    private static final DebugDraw debugDraw = new DebugDraw(1024);
 
-    public Renderer() {
-        renderBatches = new java.util.ArrayList<>();
+    // Stín GL stavu, přes který se bindují programy, textury a VAO
+    private static final RenderState state = new RenderState();
+
+    // Matice kamery v uniform bufferu sdíleném všemi shadery
+    private static final CameraUniforms cameraUniforms = new CameraUniforms();
+
+    // Culling: AABB všech spritů v uniformní mřížce, každý snímek jeden dotaz na výřez kamery
+    public static final int NO_CULLING = -1;
+    private static final float CULL_CELL_SIZE = 2.0f;
+    private static final int CULL_BUCKETS = 4096;
+    private static final float CULL_MARGIN = 0.1f;
+    private final SpatialGrid<SpriteRenderer> spatialIndex = new SpatialGrid<>(CULL_CELL_SIZE, CULL_BUCKETS);
+    private boolean cullingEnabled = true;
+
+    // Instancing pro sprity bez vlastních vrcholů, zapíná se v nastavení projektu
+    private boolean instancingEnabled;
+
+    // Kamera pro vykreslení a culling; null = kamera aktuálního view (headless běh si nastaví vlastní)
+    private Camera camera;
 
+
+    public Renderer() {
+        Project project = ProjectManager.get().getCurrentProject();
+        this.instancingEnabled = project != null && project.isInstancedRendering();
     }
 
 
@@ -36,243 +63,229 @@ public class Renderer {
     }
 
     public void add(SpriteRenderer sprite) {
-        boolean added = false;
-        for (RenderBatch batch : renderBatches) {
-            if (batch.hasRoom() && batch.getZIndex() == sprite.gameObject.getZIndex()) {
-                Texture texture = sprite.getTexture();
-                if (texture == null || (batch.hasTexture(texture) || batch.hasTextureRoom())) {
-                    batch.addSprite(sprite);
-                    added = true;
-                    break;
-                }
-            }
+        int zIndex = sprite.gameObject.getZIndex();
+        RenderLayer layer = layers.get(zIndex);
+        if (layer == null) {
+            layer = new RenderLayer(zIndex);
+            layers.put(zIndex, layer);
         }
-        if (!added) {
-            RenderBatch newBatch = new RenderBatch(MAX_BATCH_SIZE, sprite.gameObject.getZIndex(), this);
-            newBatch.start();
-            renderBatches.add(newBatch);
-            newBatch.addSprite(sprite);
-            Collections.sort(renderBatches);
+
+        boolean instanced = instancingEnabled && InstancedRenderBatch.canInstance(sprite);
+        SpriteBatch batch = layer.findBatch(sprite.getTexture(), instanced);
+        if (batch == null) {
+            batch = instanced
+                    ? new InstancedRenderBatch(MAX_BATCH_SIZE, zIndex, this)
+                    : new RenderBatch(MAX_BATCH_SIZE, zIndex, this);
+            batch.start();
+            layer.addBatch(batch);
         }
+        batch.addSprite(sprite);
+        layer.updateRoom(batch);
     }
 
 
     public void render() {
-        for (int i = 0; i < renderBatches.size(); i++) {
-            RenderBatch batch = renderBatches.get(i);
-            batch.render();
+        stats.reset();
+        for (RenderLayer layer : layers.values()) {
+            for (SpriteBatch batch : layer.getBatches()) batch.updateSprites();
+        }
+        // sprity se změněným z-indexem nahlásily batche, přesunou se až po průchodu
+        processRebatchQueue();
+
+        Camera camera = getCamera();
+        cameraUniforms.update(camera);
+        int cullStamp = cull(camera);
+
+        for (RenderLayer layer : layers.values()) {
+            List<SpriteBatch> batches = layer.getBatches();
+            for (int i = 0; i < batches.size(); i++) {
+                SpriteBatch batch = batches.get(i);
+                batch.updateVisibility(cullStamp);
+                stats.addBatch(batch.getNumSprites(), batch.getVisibleCount());
+                batch.render();
+            }
         }
     }
 
-
-
-    public static void beginLines(Vector4f color) {
-        if (debugShader == null) {
-            debugShader = AssetPool.getShader("vertexDebug.glsl", "fragmentDebug.glsl");
+    // Přesune sprity do vrstvy podle jejich nového z-indexu; ostatních batchí se to netýká
+    private void processRebatchQueue() {
+        for (int i = 0; i < rebatchQueue.size(); i++) {
+            SpriteRenderer sprite = rebatchQueue.get(i);
+            remove(sprite);
+            add(sprite);
         }
-        debugShader.use();
-        debugShader.uploadMat4f("uProjection", Window.getView().camera().getProjectionMatrix());
-        debugShader.uploadMat4f("uView", Window.getView().camera().getViewMatrix());
-        debugShader.uploadVec4f("uColor", color);
-
-        glLineWidth(1.5f);
-        glBegin(GL_LINES);
+        rebatchQueue.clear();
     }
 
-    public static void endLines() {
-        glEnd();
-        debugShader.detach();
+    // Označí sprity ve výřezu kamery; vrací číslo dotazu pro SpriteBatch.updateVisibility
+    private int cull(Camera camera) {
+        if (!cullingEnabled || camera == null) return NO_CULLING;
+
+        float width = camera.getProjectionSize().x * camera.getZoom();
+        float height = camera.getProjectionSize().y * camera.getZoom();
+        spatialIndex.query(
+                camera.position.x - CULL_MARGIN, camera.position.y - CULL_MARGIN,
+                camera.position.x + width + CULL_MARGIN, camera.position.y + height + CULL_MARGIN,
+                null);
+        return spatialIndex.getQueryStamp();
     }
 
 
 
-    public static void drawLine(float x1, float y1, float x2, float y2) {
-        glVertex2f(x1, y1);
-        glVertex2f(x2, y2);
+    public void remove(GameObject go) {
+        SpriteRenderer sprite = go.getComponent(SpriteRenderer.class);
+        if (sprite != null) remove(sprite);
     }
 
+    public void remove(SpriteRenderer sprite) {
+        SpriteBatch batch = sprite.getBatch();
+        if (batch == null || !batch.removeSprite(sprite)) return;
+        RenderLayer layer = layers.get(batch.getZIndex());
+        if (layer != null) layer.updateRoom(batch);
+    }
 
-    public static void drawLine(Vector2f corner, Vector2f corner1) {
-        glVertex2f(corner.x, corner.y);
-        glVertex2f(corner1.x, corner1.y);
+    public void requestRebatch(SpriteRenderer sprite) {
+        if (!rebatchQueue.contains(sprite)) rebatchQueue.add(sprite);
     }
 
-    // ==================================================
-    // Add Box2D methods
-    // ==================================================
-    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation) {
-        // TODO: ADD CONSTANTS FOR COMMON COLORS
-        addBox2D(center, dimensions, rotation, new Vector4f(0, 1, 0, 1), 1);
+    public int getLayerCount() {
+        return layers.size();
     }
 
-    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation, Vector4f color) {
-        addBox2D(center, dimensions, rotation, color, 1);
+    public SpatialGrid<SpriteRenderer> getSpatialIndex() {
+        return spatialIndex;
     }
 
-    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation,
-                                Vector4f color, int lifetime) {
-        Vector2f min = new Vector2f(center).sub(new Vector2f(dimensions).mul(0.5f));
-        Vector2f max = new Vector2f(center).add(new Vector2f(dimensions).mul(0.5f));
+    public boolean isCullingEnabled() {
+        return cullingEnabled;
+    }
 
-        Vector2f[] vertices = {
-                new Vector2f(min.x, min.y), new Vector2f(min.x, max.y),
-                new Vector2f(max.x, max.y), new Vector2f(max.x, min.y)
-        };
+    public void setCullingEnabled(boolean cullingEnabled) {
+        this.cullingEnabled = cullingEnabled;
+    }
 
-        if (rotation != 0.0f) {
-            for (Vector2f vert : vertices) {
-                rotate(vert, rotation, center);
-            }
-        }
+    public boolean isInstancingEnabled() {
+        return instancingEnabled;
+    }
 
-        beginLines(color);
+    // Platí pro nově přidané sprity
+    public void setInstancingEnabled(boolean instancingEnabled) {
+        this.instancingEnabled = instancingEnabled;
+    }
 
-        drawLine(vertices[0], vertices[1]);
-        drawLine(vertices[0], vertices[3]);
-        drawLine(vertices[1], vertices[2]);
-        drawLine(vertices[2], vertices[3]);
+    public Camera getCamera() {
+        return camera != null ? camera : Window.getView().camera();
+    }
 
-        endLines();
+    public void setCamera(Camera camera) {
+        this.camera = camera;
     }
 
-    public static void drawCircle(Vector2f center, float radius, Vector4f color, int segments) {
-        beginLines(color);
+    public RenderStats getStats() {
+        return stats;
+    }
 
-        float angleIncrement = (float)(2 * Math.PI / segments);
-        for (int i = 0; i < segments; i++) {
-            float angle1 = i * angleIncrement;
-            float angle2 = (i + 1) * angleIncrement;
+    public VertexUploadStrategy getVertexUploadStrategy() {
+        return vertexUploadStrategy;
+    }
 
-            float x1 = center.x + radius * (float)Math.cos(angle1);
-            float y1 = center.y + radius * (float)Math.sin(angle1);
-            float x2 = center.x + radius * (float)Math.cos(angle2);
-            float y2 = center.y + radius * (float)Math.sin(angle2);
+    // Platí pro nově vytvořené batche
+    public void setVertexUploadStrategy(VertexUploadStrategy vertexUploadStrategy) {
+        this.vertexUploadStrategy = vertexUploadStrategy;
+    }
 
-            drawLine(x1, y1, x2, y2);
-        }
+    public static GraphicsBackend getBackend() {
+        return backend;
+    }
 
-        endLines();
+    public static void setBackend(GraphicsBackend backend) {
+        Renderer.backend = backend;
+        state.invalidate();
     }
 
-    public static void drawCapsule(
-            Vector2f center,
-            float radius,
-            float height,
-            float rotation,
-            Vector4f color,
-            int segments
-    ) {
-        if (height < radius * 2f) return;
+    public static RenderState getState() {
+        return state;
+    }
 
-        float halfStraight = (height / 2f) - radius;
+    public static CameraUniforms getCameraUniforms() {
+        return cameraUniforms;
+    }
 
-        // středy kruhů
-        Vector2f topCenter = new Vector2f(center.x, center.y + halfStraight);
-        Vector2f bottomCenter = new Vector2f(center.x, center.y - halfStraight);
+    public static DebugDraw getDebugDraw() {
+        return debugDraw;
+    }
 
-        // rotace kolem středu kapsle
-        if (rotation != 0f) {
-            rotate(topCenter, rotation, center);
-            rotate(bottomCenter, rotation, center);
-        }
+    // ==================================================
+    // Původní statické ladicí čáry, jen přeposílají do DebugDraw
+    // ==================================================
+    private static final Vector4f lineColor = new Vector4f(DebugDraw.GREEN);
 
-        beginLines(color);
-        float a0 = rotation;
-        float aPi = rotation + (float)Math.PI;
-        float a2Pi = rotation + (float)(2 * Math.PI);
-
-
-        drawArc(
-                topCenter,
-                radius,
-                a0,
-                aPi,
-                segments
-        );
-
-        drawArc(
-                bottomCenter,
-                radius,
-                aPi,
-                a2Pi,
-                segments
-        );
-
-
-        Vector2f leftTop = new Vector2f(-radius, +halfStraight);
-        Vector2f leftBottom = new Vector2f(-radius, -halfStraight);
-        Vector2f rightTop = new Vector2f(+radius, +halfStraight);
-        Vector2f rightBottom = new Vector2f(+radius, -halfStraight);
-
-        // posun + rotace
-        leftTop.add(center);
-        leftBottom.add(center);
-        rightTop.add(center);
-        rightBottom.add(center);
-
-        if (rotation != 0f) {
-            rotate(leftTop, rotation, center);
-            rotate(leftBottom, rotation, center);
-            rotate(rightTop, rotation, center);
-            rotate(rightBottom, rotation, center);
-        }
+    /** @deprecated použij {@link #getDebugDraw()}; barva platí pro další drawLine */
+    @Deprecated
+    public static void beginLines(Vector4f color) {
+        lineColor.set(color);
+    }
 
-        drawLine(leftTop, leftBottom);
-        drawLine(rightTop, rightBottom);
+    /** @deprecated čáry z DebugDraw se kreslí samy na konci snímku */
+    @Deprecated
+    public static void endLines() {
+    }
 
-        endLines();
+    /** @deprecated použij {@link DebugDraw#addLine(float, float, float, float, Vector4f)} */
+    @Deprecated
+    public static void drawLine(float x1, float y1, float x2, float y2) {
+        debugDraw.addLine(x1, y1, x2, y2, lineColor);
     }
 
-    private static void drawArc(
-            Vector2f center,
-            float radius,
-            float startAngle,
-            float endAngle,
-            int segments
-    ) {
-        float angleRange = endAngle - startAngle;
-        float step = angleRange / segments;
+    /** @deprecated použij {@link DebugDraw#addLine(Vector2f, Vector2f, Vector4f)} */
+    @Deprecated
+    public static void drawLine(Vector2f corner, Vector2f corner1) {
+        debugDraw.addLine(corner, corner1, lineColor);
+    }
 
-        for (int i = 0; i < segments; i++) {
-            float a1 = startAngle + i * step;
-            float a2 = startAngle + (i + 1) * step;
+    /** @deprecated použij {@link DebugDraw#addBox2D(Vector2f, Vector2f, float, Vector4f)} */
+    @Deprecated
+    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation) {
+        debugDraw.addBox2D(center, dimensions, rotation, DebugDraw.GREEN);
+    }
 
-            float x1 = center.x + radius * (float)Math.cos(a1);
-            float y1 = center.y + radius * (float)Math.sin(a1);
-            float x2 = center.x + radius * (float)Math.cos(a2);
-            float y2 = center.y + radius * (float)Math.sin(a2);
+    /** @deprecated použij {@link DebugDraw#addBox2D(Vector2f, Vector2f, float, Vector4f)} */
+    @Deprecated
+    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation, Vector4f color) {
+        debugDraw.addBox2D(center, dimensions, rotation, color);
+    }
 
-            drawLine(x1, y1, x2, y2);
-        }
+    /** @deprecated použij {@link DebugDraw#addBox2D(Vector2f, Vector2f, float, Vector4f, int)} */
+    @Deprecated
+    public static void addBox2D(Vector2f center, Vector2f dimensions, float rotation,
+                                Vector4f color, int lifetime) {
+        debugDraw.addBox2D(center, dimensions, rotation, color, lifetime);
     }
 
+    /** @deprecated použij {@link DebugDraw#addCircle(Vector2f, float, Vector4f, int)} */
+    @Deprecated
+    public static void drawCircle(Vector2f center, float radius, Vector4f color, int segments) {
+        debugDraw.addCircle(center, radius, color, segments);
+    }
 
+    /** @deprecated použij {@link DebugDraw#addCapsule(Vector2f, float, float, float, Vector4f, int)} */
+    @Deprecated
+    public static void drawCapsule(Vector2f center, float radius, float height, float rotation,
+                                   Vector4f color, int segments) {
+        debugDraw.addCapsule(center, radius, height, rotation, color, segments);
+    }
 
+    /** @deprecated DebugDraw otáčí tvary samo; úhel je v radiánech */
+    @Deprecated
     public static void rotate(Vector2f vec, float angleDeg, Vector2f origin) {
         float x = vec.x - origin.x;
         float y = vec.y - origin.y;
 
-        float cos = (float)Math.cos((angleDeg));
-        float sin = (float)Math.sin((angleDeg));
+        float cos = (float) Math.cos(angleDeg);
+        float sin = (float) Math.sin(angleDeg);
 
-        float xPrime = (x * cos) - (y * sin);
-        float yPrime = (x * sin) + (y * cos);
-
-        xPrime += origin.x;
-        yPrime += origin.y;
-
-        vec.x = xPrime;
-        vec.y = yPrime;
-    }
-
-    public void remove(GameObject go) {
-        for (RenderBatch batch : renderBatches) {
-            batch.destroyIfExists(go);
-        }
-    }
-
-    public void requestRebatch(SpriteRenderer sprite) {
-        rebatchQueue.add(sprite);
+        vec.x = (x * cos) - (y * sin) + origin.x;
+        vec.y = (x * sin) + (y * cos) + origin.y;
     }
 
 
@@ -12,10 +12,12 @@ import java.io.IOException;
 import java.nio.FloatBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL11.GL_FALSE;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL20.glGetShaderInfoLog;
 
 public class Shader {
 
@@ -25,7 +27,11 @@ public class Shader {
     private final String fileVertex;
     private final String fileFragment;
 
-    private boolean beingUsed = false;
+    // Lokace uniformů podle jména, naplněné po linkování; neznámá jména se doptají a uloží
+    private final Map<String, Integer> uniformLocations = new HashMap<>();
+    // Poslední nahrané hodnoty int polí (uTextures se posílá pro každou batch stejné)
+    private final Map<Integer, int[]> intArrayValues = new HashMap<>();
+    private final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
 
     public Shader (String filePathVertex, String filePathFragment) {
         this.fileVertex = filePathVertex;
@@ -48,128 +54,144 @@ public class Shader {
 
     // Compile and link shaders
     public void compile() {
+        GraphicsBackend gl = Renderer.getBackend();
         int vertexID, fragmentID;
         // Load and compile vertex shader
-        vertexID = glCreateShader(GL_VERTEX_SHADER);
+        vertexID = gl.createShader(GL_VERTEX_SHADER);
         // Pass the shader source to the GPU
-        glShaderSource(vertexID, vertexSource);
-        glCompileShader(vertexID);
+        gl.shaderSource(vertexID, vertexSource);
+        gl.compileShader(vertexID);
 
         // Check for compilation errors
-        int success = glGetShaderi(vertexID, GL_COMPILE_STATUS);
+        int success = gl.getShaderi(vertexID, GL_COMPILE_STATUS);
         if (success == GL_FALSE) {
-            int len = glGetShaderi(vertexID, GL_INFO_LOG_LENGTH);
             System.out.println("ERROR: " + fileVertex + " vertex shader compilation failed");
-            System.out.println("ERROR: " + glGetShaderInfoLog(vertexID, len));
+            System.out.println("ERROR: " + gl.getShaderInfoLog(vertexID));
             assert false : "Vertex shader compilation failed";
         }
 
         // Load and compile fragment shader
-        fragmentID = glCreateShader(GL_FRAGMENT_SHADER);
+        fragmentID = gl.createShader(GL_FRAGMENT_SHADER);
         // Pass the shader source to the GPU
-        glShaderSource(fragmentID, fragmentSource);
-        glCompileShader(fragmentID);
+        gl.shaderSource(fragmentID, fragmentSource);
+        gl.compileShader(fragmentID);
         // Check for compilation errors
-        success = glGetShaderi(fragmentID, GL_COMPILE_STATUS);
+        success = gl.getShaderi(fragmentID, GL_COMPILE_STATUS);
         if (success == GL_FALSE) {
-            int len = glGetShaderi(fragmentID, GL_INFO_LOG_LENGTH);
             System.out.println("ERROR: " + fileFragment + " fragment shader compilation failed");
-            System.out.println("ERROR: " + glGetShaderInfoLog(fragmentID, len));
+            System.out.println("ERROR: " + gl.getShaderInfoLog(fragmentID));
             assert false : "Fragment shader compilation failed";
         }
 
         // Create shader program
-        programID = glCreateProgram();
+        programID = gl.createProgram();
         // Attach shaders to the program
-        glAttachShader(programID, vertexID);
-        glAttachShader(programID, fragmentID);
+        gl.attachShader(programID, vertexID);
+        gl.attachShader(programID, fragmentID);
         // Link the program
-        glLinkProgram(programID);
+        gl.linkProgram(programID);
         // Check for linking errors
-        success = glGetProgrami(programID, GL_LINK_STATUS);
+        success = gl.getProgrami(programID, GL_LINK_STATUS);
         if (success == GL_FALSE) {
-            int len = glGetProgrami(programID, GL_INFO_LOG_LENGTH);
             System.out.println("ERROR: " + fileVertex + fileFragment + " linking of shaders failed");
-            System.out.println("ERROR: " + glGetProgramInfoLog(programID, len));
+            System.out.println("ERROR: " + gl.getProgramInfoLog(programID));
             assert false : "Shader program linking failed";
         }
+
+        CameraUniforms.bind(programID);
+        cacheUniformLocations(gl);
     }
 
-    public void use() {
-        if (beingUsed) {
-            return;
+    private void cacheUniformLocations(GraphicsBackend gl) {
+        uniformLocations.clear();
+        intArrayValues.clear();
+        int count = gl.getProgrami(programID, GL_ACTIVE_UNIFORMS);
+        for (int i = 0; i < count; i++) {
+            String name = gl.getActiveUniformName(programID, i);
+            // pole se hlásí jako "uTextures[0]", nahrává se přes jméno bez indexu
+            if (name.endsWith("[0]")) name = name.substring(0, name.length() - 3);
+            uniformLocations.put(name, gl.getUniformLocation(programID, name));
         }
-        // Bind the shader program
-        glUseProgram(programID);
-        beingUsed = true;
+    }
 
+    // Bind the shader program (RenderState přeskočí, pokud už je bindnutý)
+    public void use() {
+        Renderer.getState().useProgram(programID);
     }
 
     public void detach() {
-        if (!beingUsed) {
-            return;
-        }
-        // Detach the shader program
-        glUseProgram(0);
-        beingUsed = false;
+        Renderer.getState().useProgram(0);
+    }
 
+    public int getUniformLocation(String name) {
+        Integer location = uniformLocations.get(name);
+        if (location == null) {
+            location = Renderer.getBackend().getUniformLocation(programID, name);
+            uniformLocations.put(name, location);
+        }
+        return location;
     }
 
     public void uploadMat4f(String name, Matrix4f matrix) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
-        matrix.get(buffer);
-        glUniformMatrix4fv(location, false, buffer);
+        matrix.get(matrixBuffer);
+        Renderer.getBackend().uniformMatrix4fv(location, false, matrixBuffer);
     }
 
     public void uploadMat3f(String name, Matrix4f matrix) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
         FloatBuffer buffer = BufferUtils.createFloatBuffer(9);
         matrix.get(buffer);
-        glUniformMatrix3fv(location, false, buffer);
+        Renderer.getBackend().uniformMatrix3fv(location, false, buffer);
     }
 
     public void uploadVec4f(String name, Vector4f vector) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform4f(location, vector.x, vector.y, vector.z, vector.w);
+        Renderer.getBackend().uniform4f(location, vector.x, vector.y, vector.z, vector.w);
     }
 
     public void uploadVec3f(String name, float x, float y, float z) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform3f(location, x, y, z);
+        Renderer.getBackend().uniform3f(location, x, y, z);
     }
 
     public void uploadVec2f(String name, float x, float y) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform2f(location, x, y);
+        Renderer.getBackend().uniform2f(location, x, y);
     }
 
     public void uploadFloat(String name, float value) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform1f(location, value);
+        Renderer.getBackend().uniform1f(location, value);
     }
 
     public void uploadInt(String name, int value) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform1i(location, value);
+        Renderer.getBackend().uniform1i(location, value);
     }
 
     public void uploadTexture(String name, int slot) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
         use();
-        glUniform1i(location, slot);
+        Renderer.getBackend().uniform1i(location, slot);
     }
 
     public void uploadIntArray(String name, int[] array) {
-        int location = glGetUniformLocation(programID, name);
+        int location = getUniformLocation(name);
+        int[] last = intArrayValues.get(location);
+        if (last != null && Arrays.equals(last, array)) {
+            Renderer.getState().uniformSkipped();
+            return;
+        }
+        intArrayValues.put(location, array.clone());
         use();
-        glUniform1iv(location, array);
+        Renderer.getBackend().uniform1iv(location, array);
     }
 }
@@ -0,0 +1,163 @@
+package render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniformní mřížka (spatial hash) nad AABB objektů. Buňky se mapují do pevné tabulky
+ * kbelíků, takže svět nemá hranice a dotaz nic nealokuje. Každý záznam je v kbelících
+ * všech buněk, které překrývá; příliš velké objekty jdou do zvláštního seznamu.
+ */
+public class SpatialGrid<T> {
+
+    public static class Entry<T> {
+        private final T item;
+        private float minX, minY, maxX, maxY;
+        private int cx0, cy0, cx1, cy1;
+        private boolean oversized;
+        private int stamp = -1;
+        private boolean inserted = false;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+
+        public T getItem() { return item; }
+        // číslo posledního dotazu, který záznam vrátil
+        public int getStamp() { return stamp; }
+    }
+
+    private static final int MAX_CELLS_PER_ENTRY = 64;
+
+    private final float cellSize;
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    private final List<Entry<T>> oversized = new ArrayList<>();
+    private int size = 0;
+    private int queryStamp = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SpatialGrid(float cellSize, int bucketCountPow2) {
+        assert Integer.bitCount(bucketCountPow2) == 1 : "Bucket count must be a power of two";
+        this.cellSize = cellSize;
+        this.buckets = new List[bucketCountPow2];
+        for (int i = 0; i < bucketCountPow2; i++) buckets[i] = new ArrayList<>();
+        this.mask = bucketCountPow2 - 1;
+    }
+
+    public Entry<T> createEntry(T item) {
+        return new Entry<>(item);
+    }
+
+    // Vloží záznam nebo aktualizuje jeho AABB; mezi kbelíky se přesouvá jen při změně buněk
+    public void update(Entry<T> e, float minX, float minY, float maxX, float maxY) {
+        e.minX = minX;
+        e.minY = minY;
+        e.maxX = maxX;
+        e.maxY = maxY;
+
+        int cx0 = cell(minX), cy0 = cell(minY), cx1 = cell(maxX), cy1 = cell(maxY);
+        if (e.inserted && cx0 == e.cx0 && cy0 == e.cy0 && cx1 == e.cx1 && cy1 == e.cy1) return;
+
+        if (e.inserted) unlink(e);
+        else size++;
+
+        e.cx0 = cx0;
+        e.cy0 = cy0;
+        e.cx1 = cx1;
+        e.cy1 = cy1;
+        e.inserted = true;
+        e.oversized = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_CELLS_PER_ENTRY;
+
+        if (e.oversized) {
+            oversized.add(e);
+            return;
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                buckets[hash(cx, cy)].add(e);
+            }
+        }
+    }
+
+    public void remove(Entry<T> e) {
+        if (!e.inserted) return;
+        unlink(e);
+        e.inserted = false;
+        size--;
+    }
+
+    private void unlink(Entry<T> e) {
+        if (e.oversized) {
+            removeFrom(oversized, e);
+            return;
+        }
+        for (int cy = e.cy0; cy <= e.cy1; cy++) {
+            for (int cx = e.cx0; cx <= e.cx1; cx++) {
+                removeFrom(buckets[hash(cx, cy)], e);
+            }
+        }
+    }
+
+    private static <T> void removeFrom(List<Entry<T>> list, Entry<T> e) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == e) {
+                int last = list.size() - 1;
+                list.set(i, list.get(last));
+                list.remove(last);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Označí všechny záznamy překrývající daný AABB novým číslem dotazu (viz Entry.getStamp()).
+     *
+     * @param out pokud není null, nalezené položky se do něj přidají
+     * @return počet nalezených záznamů
+     */
+    public int query(float minX, float minY, float maxX, float maxY, List<T> out) {
+        int stamp = ++queryStamp;
+        int found = 0;
+
+        int cx0 = cell(minX), cy0 = cell(minY), cx1 = cell(maxX), cy1 = cell(maxY);
+        long cells = (long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+
+        if (cells > buckets.length) {
+            // dotaz větší než tabulka => projít každý kbelík jen jednou
+            for (List<Entry<T>> bucket : buckets) found += scan(bucket, stamp, minX, minY, maxX, maxY, out);
+        } else {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    found += scan(buckets[hash(cx, cy)], stamp, minX, minY, maxX, maxY, out);
+                }
+            }
+        }
+        found += scan(oversized, stamp, minX, minY, maxX, maxY, out);
+        return found;
+    }
+
+    private int scan(List<Entry<T>> bucket, int stamp, float minX, float minY, float maxX, float maxY, List<T> out) {
+        int found = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry<T> e = bucket.get(i);
+            if (e.stamp == stamp) continue;
+            if (e.maxX < minX || e.minX > maxX || e.maxY < minY || e.minY > maxY) continue;
+            e.stamp = stamp;
+            found++;
+            if (out != null) out.add(e.item);
+        }
+        return found;
+    }
+
+    private int cell(float v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private int hash(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & mask;
+    }
+
+    public int getQueryStamp() { return queryStamp; }
+    public int size() { return size; }
+}
@@ -0,0 +1,245 @@
+package render;
+
+import components.SpriteRenderer;
+import engine.GameObject;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Společný základ batchí spritů: sloty spritů (swap-remove), texture sloty, culling
+ * a průběh vykreslení. Jak se sprite zapíše do bufferu a vykreslí, řeší potomek
+ * (RenderBatch – rozepsané vertexy, InstancedRenderBatch – jedna instance na sprite).
+ */
+public abstract class SpriteBatch implements Comparable<SpriteBatch> {
+    protected SpriteRenderer[] sprites;
+    protected int numSprites;
+    protected boolean hasRoom;
+    protected int maxBatchSize;
+    protected int zIndex;
+    protected Shader shader;
+    protected int[] texSlots = {0, 1, 2, 3, 4, 5, 6, 7};
+
+    protected Renderer renderer;
+    protected int bytesUploaded = 0;
+
+    // Texture sloty (jednotka i+1) s počtem spritů, které je používají; slot se uvolní při nule,
+    // ostatní sloty zůstávají na místě, takže texID už nahraných spritů platí dál
+    private Texture[] textures;
+    private int[] textureRefs;
+    private Texture[] spriteTextures;
+
+    // Záznamy spritů v prostorovém indexu rendereru a jejich viditelnost v posledním snímku
+    protected SpatialGrid.Entry<SpriteRenderer>[] cullEntries;
+    protected boolean[] visible;
+    protected int visibleCount = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected SpriteBatch(int maxBatchSize, int zIndex, Renderer renderer) {
+        this.zIndex = zIndex;
+        this.maxBatchSize = maxBatchSize;
+        this.sprites = new SpriteRenderer[maxBatchSize];
+        this.cullEntries = new SpatialGrid.Entry[maxBatchSize];
+        this.visible = new boolean[maxBatchSize];
+        this.numSprites = 0;
+        this.hasRoom = true;
+        this.textures = new Texture[texSlots.length];
+        this.textureRefs = new int[texSlots.length];
+        this.spriteTextures = new Texture[maxBatchSize];
+        this.renderer = renderer;
+    }
+
+    public abstract void start();
+
+    // Zapíše data spritu do CPU bufferu batche a aktualizuje jeho AABB (updateBounds)
+    protected abstract void loadSprite(int index);
+
+    // Sprite byl přidán na konec (index == numSprites - 1)
+    protected abstract void onSpriteAdded(int index);
+
+    /**
+     * Sprite ze slotu 'index' byl odebrán; pokud index != last, je na jeho místě bývalý
+     * poslední sprite (už označený jako dirty).
+     */
+    protected abstract void onSpriteRemoved(int index, int last, boolean sameVisibility);
+
+    protected abstract void onVisibilityChanged(int firstChanged);
+
+    // Nahrání změněných dat na GPU, volá se před bindnutím shaderu
+    protected abstract void uploadData();
+
+    protected abstract void draw();
+
+    public abstract boolean isInstanced();
+
+    // Sprity, které batch neumí vykreslit, se při updateSprites předají rendereru k přesunu
+    protected boolean accepts(SpriteRenderer sprite) {
+        return true;
+    }
+
+    // Přepočítá data změněných spritů (a tím i jejich AABB v prostorovém indexu)
+    public void updateSprites() {
+        bytesUploaded = 0;
+        for (int i = 0; i < numSprites; i++) {
+            SpriteRenderer sprite = sprites[i];
+            if (sprite.gameObject.getZIndex() != this.zIndex || !accepts(sprite)) {
+                // přesun do jiné vrstvy/batche udělá renderer po průchodu všech batchí
+                renderer.requestRebatch(sprite);
+                continue;
+            }
+            if (sprite.isDirty()) {
+                loadSprite(i);
+                sprite.setClean();
+            }
+        }
+    }
+
+    /**
+     * Převezme výsledek cullingu: sprite je viditelný, pokud ho vrátil dotaz s číslem 'cullStamp'.
+     *
+     * @param cullStamp číslo dotazu prostorového indexu, nebo Renderer.NO_CULLING
+     */
+    public void updateVisibility(int cullStamp) {
+        int firstChanged = -1;
+        visibleCount = 0;
+        for (int i = 0; i < numSprites; i++) {
+            boolean v = cullStamp == Renderer.NO_CULLING || cullEntries[i].getStamp() == cullStamp;
+            if (v != visible[i]) {
+                visible[i] = v;
+                if (firstChanged == -1) firstChanged = i;
+            }
+            if (v) visibleCount++;
+        }
+        if (firstChanged != -1) onVisibilityChanged(firstChanged);
+    }
+
+    public void render() {
+        // nic viditelného => žádný upload ani draw call, změny počkají v dirty rozsazích
+        if (visibleCount == 0) return;
+
+        uploadData();
+
+        // matice kamery jsou v CameraUniforms, nahrané rendererem jednou za snímek
+        shader.use();
+
+        // textury, program i VAO zůstávají bindnuté pro další batch, RenderState přeskočí opakované bindy
+        for (int i = 0; i < textures.length; i++) {
+            if (textures[i] != null) textures[i].bind(i + 1);
+        }
+        shader.uploadIntArray("uTextures", texSlots);
+
+        draw();
+        renderer.getStats().addDrawCall();
+    }
+
+    public void addSprite(SpriteRenderer sprite) {
+        int index = numSprites;
+        sprites[index] = sprite;
+        sprite.setBatchSlot(this, index);
+        cullEntries[index] = renderer.getSpatialIndex().createEntry(sprite);
+        // do prvního cullingu se počítá jako viditelný
+        visible[index] = true;
+        visibleCount++;
+        spriteTextures[index] = sprite.getTexture() != null ? sprite.getTexture().getPage() : null;
+        acquireTexture(spriteTextures[index]);
+        numSprites++;
+
+        onSpriteAdded(index);
+
+        if (numSprites >= maxBatchSize) hasRoom = false;
+    }
+
+    /**
+     * Odebere sprite podle jeho slotu v O(1): na jeho místo se přesune poslední sprite batche.
+     */
+    public boolean removeSprite(SpriteRenderer sprite) {
+        int i = sprite.getBatchIndex();
+        if (sprite.getBatch() != this || i < 0 || i >= numSprites || sprites[i] != sprite) return false;
+
+        renderer.getSpatialIndex().remove(cullEntries[i]);
+        releaseTexture(spriteTextures[i]);
+        if (visible[i]) visibleCount--;
+        sprite.setBatchSlot(null, -1);
+
+        int last = numSprites - 1;
+        boolean sameVisibility = visible[i] == visible[last];
+
+        if (i != last) {
+            sprites[i] = sprites[last];
+            cullEntries[i] = cullEntries[last];
+            visible[i] = visible[last];
+            spriteTextures[i] = spriteTextures[last];
+            sprites[i].setBatchSlot(this, i);
+            // data přesunutého spritu se zapíšou na jeho nové místo
+            sprites[i].setDirty();
+        }
+        sprites[last] = null;
+        cullEntries[last] = null;
+        spriteTextures[last] = null;
+        numSprites--;
+        hasRoom = true;
+
+        onSpriteRemoved(i, last, sameVisibility);
+        return true;
+    }
+
+    public boolean destroyIfExists(GameObject go) {
+        SpriteRenderer sprite = go.getComponent(SpriteRenderer.class);
+        return sprite != null && removeSprite(sprite);
+    }
+
+    // Číslo texture slotu pro shader (0 = bez textury)
+    protected int textureId(Texture texture) {
+        return texture != null ? findTextureSlot(texture.getPage()) + 1 : 0;
+    }
+
+    private int findTextureSlot(Texture page) {
+        for (int i = 0; i < textures.length; i++) {
+            Texture t = textures[i];
+            if (t != null && (t == page || t.getFilePath().equals(page.getFilePath()))) return i;
+        }
+        return -1;
+    }
+
+    private void acquireTexture(Texture page) {
+        if (page == null) return;
+        int slot = findTextureSlot(page);
+        if (slot == -1) {
+            for (int i = 0; i < textures.length && slot == -1; i++) {
+                if (textures[i] == null) slot = i;
+            }
+            assert slot != -1 : "SpriteBatch has no free texture slot";
+            textures[slot] = page;
+        }
+        textureRefs[slot]++;
+    }
+
+    private void releaseTexture(Texture page) {
+        if (page == null) return;
+        int slot = findTextureSlot(page);
+        if (slot == -1) return;
+        if (--textureRefs[slot] == 0) textures[slot] = null;
+    }
+
+    protected void updateBounds(int index, float minX, float minY, float maxX, float maxY) {
+        renderer.getSpatialIndex().update(cullEntries[index], minX, minY, maxX, maxY);
+    }
+
+    protected void recordUpload(int bytes) {
+        bytesUploaded += bytes;
+        renderer.getStats().addUpload(bytes);
+    }
+
+    public boolean hasRoom() { return hasRoom; }
+    public boolean hasTextureRoom() {
+        for (Texture texture : textures) if (texture == null) return true;
+        return false;
+    }
+
+    public boolean hasTexture(Texture texture) { return findTextureSlot(texture.getPage()) != -1; }
+    public int getZIndex() { return zIndex; }
+    public int getBytesUploaded() { return bytesUploaded; }
+    public int getNumSprites() { return numSprites; }
+    public int getVisibleCount() { return visibleCount; }
+
+    @Override
+    public int compareTo(@NotNull SpriteBatch o) { return Integer.compare(this.zIndex, o.zIndex); }
+}
@@ -0,0 +1,29 @@
+package render;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
+
+// Výchozí cesta: glBufferSubData jen do změněných rozsahů stále stejného bufferu
+public class SubDataUploadStrategy implements VertexUploadStrategy {
+
+    @Override
+    public void allocate(GraphicsBackend gl, int capacityBytes) {
+        gl.bufferData(GL_ARRAY_BUFFER, capacityBytes, GL_DYNAMIC_DRAW);
+    }
+
+    @Override
+    public int upload(GraphicsBackend gl, float[] vertexArray, int usedFloats, DirtyRanges dirty, FloatBuffer staging) {
+        int bytes = 0;
+        for (int r = 0; r < dirty.size(); r++) {
+            int start = dirty.getStart(r);
+            int count = dirty.getEnd(r) - start;
+            staging.clear();
+            staging.put(vertexArray, start, count).flip();
+            gl.bufferSubData(GL_ARRAY_BUFFER, (long) start * Float.BYTES, staging);
+            bytes += count * Float.BYTES;
+        }
+        return bytes;
+    }
+}
@@ -7,7 +7,6 @@ import java.nio.IntBuffer;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
-import static org.lwjgl.opengl.GL30.glGenerateMipmap;
 import static org.lwjgl.stb.STBImage.stbi_image_free;
 import static org.lwjgl.stb.STBImage.stbi_load;
 
@@ -16,19 +15,24 @@ public class Texture {
     private String path;
     private int id, width, height;
 
+    // Pokud je textura jen oblastí v atlasu, vykresluje se přes stránku atlasu
+    private Texture page = null;
+    private float u0 = 0.0f, v0 = 0.0f, u1 = 1.0f, v1 = 1.0f;
+
     public Texture(String path) {
         this.path = path;
+        GraphicsBackend gl = Renderer.getBackend();
 
         // Generate texture on GPU
-        id = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, id);
+        id = gl.genTexture();
+        Renderer.getState().bindTexture(id);
 
         // Set texture parameters
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
 
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
 
         IntBuffer width = BufferUtils.createIntBuffer(1);
         IntBuffer height = BufferUtils.createIntBuffer(1);
@@ -43,9 +47,9 @@ public class Texture {
             this.height = height.get(0);
             // Upload image data to GPU
             if (channels.get(0) == 3) {
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, width.get(0), height.get(0), 0, GL_RGB, GL_UNSIGNED_BYTE, image);
+                gl.texImage2D(GL_TEXTURE_2D, 0, GL_RGB, width.get(0), height.get(0), GL_RGB, GL_UNSIGNED_BYTE, image);
             } else if (channels.get(0) == 4) {
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width.get(0), height.get(0), 0, GL_RGBA, GL_UNSIGNED_BYTE, image);
+                gl.texImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width.get(0), height.get(0), GL_RGBA, GL_UNSIGNED_BYTE, image);
             } else {
                 assert false : "(Texture) Unsupported number of channels: " + channels.get(0);
             }
@@ -62,12 +66,48 @@ public class Texture {
 
     }
 
+    // Stránka atlasu vytvořená z RGBA pixelů
+    public Texture(String name, int width, int height, ByteBuffer rgba) {
+        this.path = name;
+        this.width = width;
+        this.height = height;
+        GraphicsBackend gl = Renderer.getBackend();
+
+        id = gl.genTexture();
+        Renderer.getState().bindTexture(id);
+
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        gl.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+
+        gl.texImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, GL_RGBA, GL_UNSIGNED_BYTE, rgba);
+    }
+
+    // Oblast [x, y, w, h] (v pixelech) uvnitř stránky atlasu; cesta zůstává původní kvůli ukládání scén
+    public Texture(String path, Texture page, int x, int y, int w, int h) {
+        this.path = path;
+        this.page = page;
+        this.id = page.getId();
+        this.width = w;
+        this.height = h;
+        this.u0 = x / (float) page.getWidth();
+        this.v0 = y / (float) page.getHeight();
+        this.u1 = (x + w) / (float) page.getWidth();
+        this.v1 = (y + h) / (float) page.getHeight();
+    }
+
     public void bind() {
-        glBindTexture(GL_TEXTURE_2D, id);
+        Renderer.getState().bindTexture(id);
+    }
+
+    // Bind do konkrétního texture unitu, přeskočí se když tam textura už je
+    public void bind(int unit) {
+        Renderer.getState().bindTexture(unit, id);
     }
 
     public void unbind() {
-        glBindTexture(GL_TEXTURE_2D, 0);
+        Renderer.getState().bindTexture(0);
     }
 
     public int getWidth() {
@@ -85,4 +125,22 @@ public class Texture {
     public int getId() {
         return id;
     }
+
+    // Textura, která se skutečně binduje do slotu batche
+    public Texture getPage() {
+        return page != null ? page : this;
+    }
+
+    public boolean isAtlasRegion() {
+        return page != null;
+    }
+
+    // Převod tex coords spritu (0..1 v rámci obrázku) do prostoru stránky atlasu
+    public float mapU(float u) {
+        return u0 + u * (u1 - u0);
+    }
+
+    public float mapV(float v) {
+        return v0 + v * (v1 - v0);
+    }
 }
@@ -0,0 +1,289 @@
+package render;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.lwjgl.BufferUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.lwjgl.stb.STBImage.stbi_image_free;
+import static org.lwjgl.stb.STBImage.stbi_load;
+import static org.lwjgl.stb.STBImageWrite.stbi_write_png;
+
+/**
+ * Atlas malých obrázků ze složky images projektu. Sprity z jedné stránky atlasu sdílí
+ * jeden texture slot, takže se projekt s desítkami malých PNG vejde do pár draw callů.
+ * Výsledek se ukládá do složky atlasu (PNG stránky + atlas.json) a při dalším načtení
+ * se jen přečte, pokud se obrázky mezitím nezměnily.
+ */
+public class TextureAtlas {
+
+    public static final int PAGE_SIZE = 2048;
+    // větší obrázky (pozadí apod.) zůstávají jako samostatné textury
+    public static final int MAX_IMAGE_SIZE = 512;
+    private static final int PADDING = 1;
+    private static final String DESCRIPTOR = "atlas.json";
+
+    private final List<Texture> pages = new ArrayList<>();
+    private final List<Float> occupancy = new ArrayList<>();
+    private final Map<String, Texture> regions = new HashMap<>();
+    // true, pokud se atlas jen načetl z atlas.json a nesestavoval se
+    private boolean cached = false;
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    public Texture getRegion(String name) {
+        return regions.get(name);
+    }
+
+    public int getRegionCount() { return regions.size(); }
+    public int getPageCount() { return pages.size(); }
+    public Texture getPage(int index) { return pages.get(index); }
+    public float getOccupancy(int page) { return occupancy.get(page); }
+    public boolean isCached() { return cached; }
+
+    public static TextureAtlas loadOrBuild(Path imagesDir, Path atlasDir) {
+        List<String> sources = listImages(imagesDir);
+
+        AtlasData cached = readDescriptor(atlasDir);
+        if (cached != null && isUpToDate(cached, sources, imagesDir, atlasDir)) {
+            TextureAtlas atlas = load(cached, imagesDir, atlasDir);
+            if (atlas != null) return atlas;
+        }
+
+        return build(imagesDir, atlasDir, sources);
+    }
+
+    // ==================================================
+    // Build
+    // ==================================================
+    private static class Image {
+        String name;
+        int width, height;
+        ByteBuffer pixels;
+        int page, x, y;
+    }
+
+    private static TextureAtlas build(Path imagesDir, Path atlasDir, List<String> sources) {
+        List<Image> images = new ArrayList<>();
+        for (String name : sources) {
+            int[] w = new int[1], h = new int[1], channels = new int[1];
+            ByteBuffer pixels = stbi_load(imagesDir.resolve(name).toString().replace("\\", "/"), w, h, channels, 4);
+            if (pixels == null) continue;
+            if (w[0] > MAX_IMAGE_SIZE || h[0] > MAX_IMAGE_SIZE) {
+                stbi_image_free(pixels);
+                continue;
+            }
+            Image img = new Image();
+            img.name = name;
+            img.width = w[0];
+            img.height = h[0];
+            img.pixels = pixels;
+            images.add(img);
+        }
+
+        // vyšší obrázky napřed => skyline zůstává plošší
+        images.sort(Comparator.comparingInt((Image i) -> i.height).thenComparingInt(i -> i.width).reversed());
+
+        List<AtlasPacker> packers = new ArrayList<>();
+        int[] xy = new int[2];
+        for (Image img : images) {
+            int w = img.width + PADDING * 2;
+            int h = img.height + PADDING * 2;
+            img.page = -1;
+            for (int p = 0; p < packers.size() && img.page == -1; p++) {
+                if (packers.get(p).pack(w, h, xy)) img.page = p;
+            }
+            if (img.page == -1) {
+                AtlasPacker packer = new AtlasPacker(PAGE_SIZE, PAGE_SIZE);
+                packer.pack(w, h, xy);
+                packers.add(packer);
+                img.page = packers.size() - 1;
+            }
+            img.x = xy[0] + PADDING;
+            img.y = xy[1] + PADDING;
+        }
+
+        AtlasData data = new AtlasData();
+        data.sources = sources;
+        data.pages = new ArrayList<>();
+
+        List<ByteBuffer> pagePixels = new ArrayList<>();
+        for (int p = 0; p < packers.size(); p++) {
+            PageData pd = new PageData();
+            pd.file = "atlas_" + p + ".png";
+            pd.width = PAGE_SIZE;
+            pd.height = 0;
+            pd.regions = new ArrayList<>();
+            data.pages.add(pd);
+        }
+        // stránka se ořízne na použitou výšku
+        for (Image img : images) {
+            PageData pd = data.pages.get(img.page);
+            pd.height = Math.max(pd.height, img.y + img.height + PADDING);
+        }
+        for (Image img : images) {
+            PageData pd = data.pages.get(img.page);
+            pd.occupancy += img.width * img.height / (float) (pd.width * pd.height);
+        }
+        for (PageData pd : data.pages) {
+            pagePixels.add(BufferUtils.createByteBuffer(pd.width * pd.height * 4));
+        }
+
+        for (Image img : images) {
+            PageData pd = data.pages.get(img.page);
+            blit(img, pagePixels.get(img.page), pd.width);
+
+            RegionData rd = new RegionData();
+            rd.name = img.name;
+            rd.x = img.x;
+            rd.y = img.y;
+            rd.w = img.width;
+            rd.h = img.height;
+            pd.regions.add(rd);
+
+            stbi_image_free(img.pixels);
+        }
+
+        TextureAtlas atlas = new TextureAtlas();
+        for (int p = 0; p < data.pages.size(); p++) {
+            atlas.addPage(data.pages.get(p), pagePixels.get(p), imagesDir);
+        }
+        atlas.save(data, pagePixels, atlasDir);
+        return atlas;
+    }
+
+    // Zkopíruje obrázek do stránky a okraje protáhne do paddingu, aby NEAREST/clamp nesahal k sousedům
+    private static void blit(Image img, ByteBuffer page, int pageWidth) {
+        for (int y = -PADDING; y < img.height + PADDING; y++) {
+            int sy = Math.min(Math.max(y, 0), img.height - 1);
+            for (int x = -PADDING; x < img.width + PADDING; x++) {
+                int sx = Math.min(Math.max(x, 0), img.width - 1);
+                int src = (sy * img.width + sx) * 4;
+                int dst = ((img.y + y) * pageWidth + (img.x + x)) * 4;
+                page.put(dst, img.pixels.get(src));
+                page.put(dst + 1, img.pixels.get(src + 1));
+                page.put(dst + 2, img.pixels.get(src + 2));
+                page.put(dst + 3, img.pixels.get(src + 3));
+            }
+        }
+    }
+
+    private void addPage(PageData pd, ByteBuffer pixels, Path imagesDir) {
+        Texture page = new Texture("atlas#" + pages.size(), pd.width, pd.height, pixels);
+        pages.add(page);
+        occupancy.add(pd.occupancy);
+        for (RegionData rd : pd.regions) {
+            // stejná cesta, jakou by měla samostatná textura z AssetPool
+            String path = (imagesDir + "\\" + rd.name).replace("\\", "/");
+            regions.put(rd.name, new Texture(path, page, rd.x, rd.y, rd.w, rd.h));
+        }
+    }
+
+    // ==================================================
+    // Offline cache (PNG stránky + atlas.json)
+    // ==================================================
+    private void save(AtlasData data, List<ByteBuffer> pagePixels, Path atlasDir) {
+        try {
+            Files.createDirectories(atlasDir);
+            for (int p = 0; p < data.pages.size(); p++) {
+                PageData pd = data.pages.get(p);
+                String file = atlasDir.resolve(pd.file).toString().replace("\\", "/");
+                if (!stbi_write_png(file, pd.width, pd.height, 4, pagePixels.get(p), pd.width * 4)) {
+                    System.out.println("Atlas: failed to write " + file);
+                    return;
+                }
+            }
+            Files.writeString(atlasDir.resolve(DESCRIPTOR), gson.toJson(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static TextureAtlas load(AtlasData data, Path imagesDir, Path atlasDir) {
+        TextureAtlas atlas = new TextureAtlas();
+        for (PageData pd : data.pages) {
+            int[] w = new int[1], h = new int[1], channels = new int[1];
+            String file = atlasDir.resolve(pd.file).toString().replace("\\", "/");
+            ByteBuffer pixels = stbi_load(file, w, h, channels, 4);
+            if (pixels == null || w[0] != pd.width || h[0] != pd.height) {
+                if (pixels != null) stbi_image_free(pixels);
+                return null;
+            }
+            atlas.addPage(pd, pixels, imagesDir);
+            stbi_image_free(pixels);
+        }
+        atlas.cached = true;
+        return atlas;
+    }
+
+    private static AtlasData readDescriptor(Path atlasDir) {
+        Path file = atlasDir.resolve(DESCRIPTOR);
+        if (!Files.exists(file)) return null;
+        try {
+            return gson.fromJson(Files.readString(file), AtlasData.class);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static boolean isUpToDate(AtlasData data, List<String> sources, Path imagesDir, Path atlasDir) {
+        if (data.sources == null || data.pages == null || !data.sources.equals(sources)) return false;
+        try {
+            long built = Files.getLastModifiedTime(atlasDir.resolve(DESCRIPTOR)).toMillis();
+            for (String name : sources) {
+                if (Files.getLastModifiedTime(imagesDir.resolve(name)).toMillis() > built) return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return true;
+    }
+
+    // Relativní cesty (s '/') všech obrázků, stejné klíče jako v AssetPool
+    private static List<String> listImages(Path imagesDir) {
+        List<String> result = new ArrayList<>();
+        if (!Files.isDirectory(imagesDir)) return result;
+
+        try (Stream<Path> files = Files.walk(imagesDir)) {
+            files.filter(Files::isRegularFile)
+                    .map(p -> imagesDir.relativize(p).toString().replace("\\", "/"))
+                    .filter(n -> {
+                        String lower = n.toLowerCase();
+                        return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+                    })
+                    .sorted()
+                    .forEach(result::add);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    private static class AtlasData {
+        List<String> sources;
+        List<PageData> pages;
+    }
+
+    private static class PageData {
+        String file;
+        int width, height;
+        float occupancy;
+        List<RegionData> regions;
+    }
+
+    private static class RegionData {
+        String name;
+        int x, y, w, h;
+    }
+}
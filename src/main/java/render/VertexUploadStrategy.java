@@ -0,0 +1,18 @@
+package render;
+
+import java.nio.FloatBuffer;
+
+// Způsob, jakým batch dostává svá data (vertexy/instance) do VBO
+public interface VertexUploadStrategy {
+
+    // Alokuje úložiště VBO (buffer je už bindnutý na GL_ARRAY_BUFFER)
+    void allocate(GraphicsBackend gl, int capacityBytes);
+
+    /**
+     * Nahraje změněná data do VBO (buffer je už bindnutý na GL_ARRAY_BUFFER).
+     *
+     * @param usedFloats počet platných floatů na začátku vertexArray
+     * @return počet nahraných bytů
+     */
+    int upload(GraphicsBackend gl, float[] vertexArray, int usedFloats, DirtyRanges dirty, FloatBuffer staging);
+}
@@ -2,9 +2,11 @@ package util;
 
 import components.Spritesheet;
 import engine.Sound;
+import project.Project;
 import project.ProjectManager;
 import render.Shader;
 import render.Texture;
+import render.TextureAtlas;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -18,6 +20,8 @@ public class AssetPool {
     private static Map<String, Texture> textures = new HashMap<>();
     private static Map<String, Spritesheet> spriteSheets = new HashMap<>();
     private static Map<String, Sound> sounds = new HashMap<>();
+    private static TextureAtlas atlas = null;
+    private static boolean atlasLoaded = false;
 
     public static Shader getShader(String vertexName, String fragmentName) {
         String shaderKey = vertexName + fragmentName;
@@ -36,6 +40,14 @@ public class AssetPool {
         if (AssetPool.textures.containsKey(fileName)) {
             return AssetPool.textures.get(fileName);
         } else {
+            TextureAtlas atlas = getAtlas();
+            if (atlas != null) {
+                Texture region = atlas.getRegion(fileName.replace("\\", "/"));
+                if (region != null) {
+                    AssetPool.textures.put(fileName, region);
+                    return region;
+                }
+            }
             Texture texture = new Texture((ProjectManager.get().getCurrentProject().getImagesPath() + "\\" + fileName).replace("\\", "/"));
             System.out.println("ano");
             AssetPool.textures.put(fileName, texture);
@@ -44,6 +56,19 @@ public class AssetPool {
 
     }
 
+    // Atlas se sestaví (nebo načte z cache) při prvním požadavku na texturu, pokud ho projekt používá
+    public static TextureAtlas getAtlas() {
+        if (!atlasLoaded) {
+            Project project = ProjectManager.get().getCurrentProject();
+            if (project == null) return null;
+            atlasLoaded = true;
+            if (project.isTextureAtlasEnabled()) {
+                atlas = TextureAtlas.loadOrBuild(project.getImagesPath(), project.getAtlasPath());
+            }
+        }
+        return atlas;
+    }
+
     public static void addSpritesheet(String name, Spritesheet spritesheet) {
 
         if (AssetPool.spriteSheets.containsKey(name)) {
@@ -92,5 +117,7 @@ public class AssetPool {
         textures = new HashMap<>();
         spriteSheets = new HashMap<>();
         sounds = new HashMap<>();
+        atlas = null;
+        atlasLoaded = false;
     }
 }
@@ -15,18 +15,21 @@ public interface Constants {
     int TEXCOORD_SIZE = 2;
     int TEX_ID_SIZE = 1;
     int ROUNDNESS_SIZE = 1;
+    int LOCAL_COORD_SIZE = 2;
     int MAX_VERTS_PER_SPRITE = 6;
 
-    int VERTEX_SIZE = POSITION_SIZE + COLOR_SIZE + TEXCOORD_SIZE + TEX_ID_SIZE + ROUNDNESS_SIZE;
+    int VERTEX_SIZE = POSITION_SIZE + COLOR_SIZE + TEXCOORD_SIZE + TEX_ID_SIZE + ROUNDNESS_SIZE + LOCAL_COORD_SIZE;
     int VERTEX_SIZE_BYTES = VERTEX_SIZE * Float.BYTES;
 
     int TEXCOORD_OFFSET = COLOR_OFFSET + COLOR_SIZE * Float.BYTES;
     int TEX_ID_OFFSET = TEXCOORD_OFFSET + TEXCOORD_SIZE * Float.BYTES;
     int ROUNDNESS_OFFSET = TEX_ID_OFFSET + TEX_ID_SIZE * Float.BYTES;
+    int LOCAL_COORD_OFFSET = ROUNDNESS_OFFSET + ROUNDNESS_SIZE * Float.BYTES;
 
     String SHADER_PATH = "assets/shaders/";
     String DEFAULT_VERTEX_SHADER = "vertexDefault.glsl";
     String DEFAULT_FRAGMENT_SHADER = "fragmentDefault.glsl";
+    String INSTANCED_VERTEX_SHADER = "vertexInstanced.glsl";
 
     final float EDITOR_SCALE = 100.0f;
 
@@ -0,0 +1,122 @@
+package physics2d;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileOutlineTest {
+
+    // Jednotkové buňky mřížky (x, y) jako obdélníky pro trace()
+    private static float[] cells(int... xy) {
+        float[] rects = new float[xy.length * 2];
+        for (int i = 0; i < xy.length / 2; i++) {
+            rects[i * 4] = xy[i * 2];
+            rects[i * 4 + 1] = xy[i * 2 + 1];
+            rects[i * 4 + 2] = xy[i * 2] + 1;
+            rects[i * 4 + 3] = xy[i * 2 + 1] + 1;
+        }
+        return rects;
+    }
+
+    private static List<float[]> trace(float[] rects) {
+        return TileOutline.trace(rects, rects.length / 4);
+    }
+
+    // Dvojnásobek orientované plochy: kladná = proti směru hodinových ručiček
+    private static float signedArea2(float[] loop) {
+        float sum = 0;
+        int n = loop.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            sum += loop[i * 2] * loop[j * 2 + 1] - loop[j * 2] * loop[i * 2 + 1];
+        }
+        return sum;
+    }
+
+    @Test
+    void singleCellIsOneCounterClockwiseSquare() {
+        List<float[]> loops = trace(cells(0, 0));
+
+        assertEquals(1, loops.size());
+        assertArrayEquals(new float[]{0, 0, 1, 0, 1, 1, 0, 1}, loops.get(0));
+        assertTrue(signedArea2(loops.get(0)) > 0);
+    }
+
+    @Test
+    void ringHasOuterLoopAndClockwiseHole() {
+        List<float[]> loops = trace(cells(0, 0, 1, 0, 2, 0, 0, 1, 2, 1, 0, 2, 1, 2, 2, 2));
+
+        assertEquals(2, loops.size());
+        assertArrayEquals(new float[]{0, 0, 3, 0, 3, 3, 0, 3}, loops.get(0));
+        assertArrayEquals(new float[]{1, 1, 1, 2, 2, 2, 2, 1}, loops.get(1));
+        assertEquals(18.0f, signedArea2(loops.get(0)));
+        assertEquals(-2.0f, signedArea2(loops.get(1)));
+    }
+
+    @Test
+    void cellsTouchingOnlyAtCornerStaySeparateLoops() {
+        List<float[]> loops = trace(cells(0, 0, 1, 1));
+
+        assertEquals(2, loops.size());
+        assertArrayEquals(new float[]{0, 0, 1, 0, 1, 1, 0, 1}, loops.get(0));
+        assertArrayEquals(new float[]{1, 1, 2, 1, 2, 2, 1, 2}, loops.get(1));
+    }
+
+    @Test
+    void lShapeCollapsesCollinearEdges() {
+        List<float[]> loops = trace(cells(0, 0, 1, 0, 2, 0, 0, 1, 0, 2));
+
+        assertEquals(1, loops.size());
+        assertArrayEquals(new float[]{0, 0, 3, 0, 3, 1, 1, 1, 1, 3, 0, 3}, loops.get(0));
+        assertEquals(10.0f, signedArea2(loops.get(0)));
+    }
+
+    @Test
+    void coordinatesWithinEpsilonAreMerged() {
+        float nudge = TileOutline.EPSILON * 0.5f;
+        float[] rects = {
+                0, 0, 1, 1,
+                1 + nudge, 0, 2, 1 + nudge * 0.5f
+        };
+        List<float[]> loops = trace(rects);
+
+        assertEquals(1, loops.size());
+        assertArrayEquals(new float[]{0, 0, 2, 0, 2, 1, 0, 1}, loops.get(0));
+    }
+
+    @Test
+    void shuffledInputGivesSameLoops() {
+        // kříž, samostatný blok a prstenec s dírou
+        int[] xy = {
+                5, 4, 4, 5, 5, 5, 6, 5, 5, 6,
+                0, 0, 1, 0,
+                10, 10, 11, 10, 12, 10, 10, 11, 12, 11, 10, 12, 11, 12, 12, 12
+        };
+        List<float[]> expected = trace(cells(xy));
+        assertEquals(4, expected.size());
+
+        int n = xy.length / 2;
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < n; i++) order.add(i);
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            Collections.shuffle(order, random);
+            int[] shuffled = new int[xy.length];
+            for (int i = 0; i < n; i++) {
+                shuffled[i * 2] = xy[order.get(i) * 2];
+                shuffled[i * 2 + 1] = xy[order.get(i) * 2 + 1];
+            }
+            List<float[]> loops = trace(cells(shuffled));
+
+            assertEquals(expected.size(), loops.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), loops.get(i), "loop " + i + " in round " + round);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtlasPackerTest {
+
+    @Test
+    void packedRectanglesStayInPageAndDoNotOverlap() {
+        AtlasPacker packer = new AtlasPacker(256, 256);
+        Random random = new Random(3);
+        List<int[]> placed = new ArrayList<>();
+        int[] xy = new int[2];
+
+        for (int i = 0; i < 200; i++) {
+            int w = 4 + random.nextInt(29);
+            int h = 4 + random.nextInt(29);
+            if (!packer.pack(w, h, xy)) continue;
+            placed.add(new int[]{xy[0], xy[1], w, h});
+        }
+        assertTrue(placed.size() > 50, "packed only " + placed.size() + " rectangles");
+
+        for (int i = 0; i < placed.size(); i++) {
+            int[] a = placed.get(i);
+            assertTrue(a[0] >= 0 && a[1] >= 0 && a[0] + a[2] <= 256 && a[1] + a[3] <= 256,
+                    "rectangle " + i + " is outside the page");
+            for (int j = i + 1; j < placed.size(); j++) {
+                int[] b = placed.get(j);
+                boolean overlap = a[0] < b[0] + b[2] && b[0] < a[0] + a[2]
+                        && a[1] < b[1] + b[3] && b[1] < a[1] + a[3];
+                assertFalse(overlap, "rectangles " + i + " and " + j + " overlap");
+            }
+        }
+    }
+
+    @Test
+    void packReturnsFalseWhenPageIsFull() {
+        AtlasPacker packer = new AtlasPacker(64, 64);
+        int[] xy = new int[2];
+        for (int i = 0; i < 16; i++) {
+            assertTrue(packer.pack(16, 16, xy), "tile " + i);
+        }
+
+        assertFalse(packer.pack(1, 1, xy));
+        assertFalse(packer.pack(65, 1, xy));
+        assertFalse(packer.pack(0, 8, xy));
+    }
+
+    @Test
+    void occupancyIsPackedAreaOverPageArea() {
+        AtlasPacker packer = new AtlasPacker(128, 64);
+        int[] xy = new int[2];
+        assertEquals(0.0f, packer.getOccupancy());
+
+        assertTrue(packer.pack(64, 32, xy));
+        assertEquals(0.25f, packer.getOccupancy(), 1e-6f);
+        assertTrue(packer.pack(32, 32, xy));
+        assertEquals(0.375f, packer.getOccupancy(), 1e-6f);
+
+        // nevejde se, plocha se nezapočítá
+        assertFalse(packer.pack(128, 64, xy));
+        assertEquals(0.375f, packer.getOccupancy(), 1e-6f);
+    }
+
+    @Test
+    void firstRectangleGoesToTopLeftCorner() {
+        AtlasPacker packer = new AtlasPacker(64, 64);
+        int[] xy = {-1, -1};
+
+        assertTrue(packer.pack(10, 20, xy));
+        assertArrayEquals(new int[]{0, 0}, xy);
+        assertTrue(packer.pack(10, 5, xy));
+        assertArrayEquals(new int[]{10, 0}, xy);
+    }
+}
@@ -0,0 +1,108 @@
+package render;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexBufferTest {
+
+    private static int[] indices(IndexBuffer buffer) {
+        return Arrays.copyOf(buffer.getIndices(), buffer.getIndexCount());
+    }
+
+    @Test
+    void rebuildGeneratesQuadAndTriangleIndices() {
+        IndexBuffer buffer = new IndexBuffer(8);
+        buffer.rebuild(0, 3, new int[]{4, 3, 4});
+
+        assertArrayEquals(new int[]{
+                0, 1, 2, 0, 2, 3,
+                4, 5, 6,
+                7, 8, 9, 7, 9, 10
+        }, indices(buffer));
+        assertEquals(3, buffer.getNumSprites());
+        assertEquals(7, buffer.getBaseVertex(2));
+        assertEquals(9, buffer.getIndexStart(2));
+        assertTrue(buffer.isDirty());
+        assertEquals(0, buffer.getDirtyStart());
+        assertEquals(15, buffer.getDirtyEnd());
+    }
+
+    @Test
+    void partialRebuildKeepsPrefixAndMarksOnlyTailDirty() {
+        IndexBuffer buffer = new IndexBuffer(8);
+        int[] counts = {4, 3, 4};
+        buffer.rebuild(0, 3, counts);
+        buffer.markClean();
+
+        // přepnutí spritu 1 z trojúhelníku na quad
+        counts[1] = 4;
+        buffer.rebuild(1, 3, counts);
+
+        assertArrayEquals(new int[]{
+                0, 1, 2, 0, 2, 3,
+                4, 5, 6, 4, 6, 7,
+                8, 9, 10, 8, 10, 11
+        }, indices(buffer));
+        assertEquals(6, buffer.getDirtyStart());
+        assertEquals(18, buffer.getDirtyEnd());
+    }
+
+    @Test
+    void truncateDropsTailAndRebuildAppends() {
+        IndexBuffer buffer = new IndexBuffer(8);
+        int[] counts = {4, 4, 4, 0};
+        buffer.rebuild(0, 3, counts);
+        buffer.markClean();
+
+        buffer.truncate(2);
+        assertEquals(2, buffer.getNumSprites());
+        assertEquals(12, buffer.getIndexCount());
+        assertFalse(buffer.isDirty());
+
+        counts[2] = 3;
+        buffer.rebuild(2, 3, counts);
+        assertArrayEquals(new int[]{
+                0, 1, 2, 0, 2, 3,
+                4, 5, 6, 4, 6, 7,
+                8, 9, 10
+        }, indices(buffer));
+        assertEquals(12, buffer.getDirtyStart());
+        assertEquals(15, buffer.getDirtyEnd());
+    }
+
+    @Test
+    void invisibleSpritesGetNoIndicesButKeepVertices() {
+        IndexBuffer buffer = new IndexBuffer(8);
+        buffer.rebuild(0, 3, new int[]{4, 4, 4}, new boolean[]{true, false, true});
+
+        assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3, 8, 9, 10, 8, 10, 11}, indices(buffer));
+        assertEquals(8, buffer.getBaseVertex(2));
+    }
+
+    @Test
+    void rebuildDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        IndexBuffer buffer = new IndexBuffer(1000);
+        int[] counts = new int[1000];
+        Arrays.fill(counts, 4);
+        // zahřátí, ať se do měření nepočítá nic z prvního volání
+        for (int i = 0; i < 100; i++) buffer.rebuild(0, 1000, counts);
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 1000; i++) {
+            buffer.rebuild(i % 1000, 1000, counts);
+            buffer.truncate(500);
+            buffer.markClean();
+        }
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+
+        // tolerance na samotné měření (getThreadAllocatedBytes může alokovat pár bajtů)
+        assertTrue(allocated < 1024, "rebuild allocated " + allocated + " bytes");
+    }
+}
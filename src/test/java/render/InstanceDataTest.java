@@ -0,0 +1,106 @@
+package render;
+
+import engine.Transform;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceDataTest {
+
+    private static final Vector2f[] SPRITE_COORDS = {
+            new Vector2f(0.25f, 0.75f),
+            new Vector2f(0.5f, 0.75f),
+            new Vector2f(0.5f, 0.5f),
+            new Vector2f(0.25f, 0.5f)
+    };
+
+    @Test
+    void layoutIsNineteenContiguousFloats() {
+        assertEquals(19, InstanceData.INSTANCE_SIZE);
+        assertEquals(19 * Float.BYTES, InstanceData.INSTANCE_SIZE_BYTES);
+
+        // offsety atributů za sebou bez mezer: vec2, vec2, float, vec4, vec4, vec4, float, float
+        assertEquals(0, InstanceData.POSITION_OFFSET);
+        assertEquals(InstanceData.POSITION_OFFSET + 2, InstanceData.SCALE_OFFSET);
+        assertEquals(InstanceData.SCALE_OFFSET + 2, InstanceData.ROTATION_OFFSET);
+        assertEquals(InstanceData.ROTATION_OFFSET + 1, InstanceData.COLOR_OFFSET);
+        assertEquals(InstanceData.COLOR_OFFSET + 4, InstanceData.UV_RECT_OFFSET);
+        assertEquals(InstanceData.UV_RECT_OFFSET + 4, InstanceData.LOCAL_RECT_OFFSET);
+        assertEquals(InstanceData.LOCAL_RECT_OFFSET + 4, InstanceData.TEX_ID_OFFSET);
+        assertEquals(InstanceData.TEX_ID_OFFSET + 1, InstanceData.ROUNDNESS_OFFSET);
+        assertEquals(InstanceData.ROUNDNESS_OFFSET + 1, InstanceData.INSTANCE_SIZE);
+    }
+
+    @Test
+    void packWritesInstanceAtOffset() {
+        Transform t = new Transform(new Vector2f(3, -4), new Vector2f(32, 16), 0.5f, 0.25f);
+        float[] out = new float[3 * InstanceData.INSTANCE_SIZE];
+        out[InstanceData.INSTANCE_SIZE - 1] = -7;
+
+        InstanceData.pack(out, InstanceData.INSTANCE_SIZE, t, new Vector4f(1, 0.5f, 0.25f, 0.75f),
+                SPRITE_COORDS, null, 3, true);
+
+        float[] instance = new float[InstanceData.INSTANCE_SIZE];
+        System.arraycopy(out, InstanceData.INSTANCE_SIZE, instance, 0, InstanceData.INSTANCE_SIZE);
+        assertArrayEquals(new float[]{
+                3, -4,
+                32, 16,
+                0.5f,
+                1, 0.5f, 0.25f, 0.75f,
+                0.25f, 0.75f, 0.5f, 0.5f,
+                0.25f, 0.75f, 0.5f, 0.5f,
+                3,
+                0.25f
+        }, instance);
+        // sousední instance zůstávají netknuté
+        assertEquals(-7, out[InstanceData.INSTANCE_SIZE - 1]);
+        assertEquals(0, out[2 * InstanceData.INSTANCE_SIZE]);
+    }
+
+    @Test
+    void invisibleInstanceHasZeroScale() {
+        Transform t = new Transform(new Vector2f(1, 2), new Vector2f(8, 8));
+        float[] out = new float[InstanceData.INSTANCE_SIZE];
+
+        InstanceData.pack(out, 0, t, new Vector4f(1), null, null, 0, false);
+
+        assertEquals(0, out[InstanceData.SCALE_OFFSET]);
+        assertEquals(0, out[InstanceData.SCALE_OFFSET + 1]);
+        assertEquals(1, out[InstanceData.POSITION_OFFSET]);
+        // bez tex coords výchozí obdélník (0,1)-(1,0)
+        assertArrayEquals(new float[]{0, 1, 1, 0},
+                new float[]{out[9], out[10], out[11], out[12]});
+    }
+
+    @Test
+    void atlasRegionMapsUvRectButKeepsLocalRect() {
+        Renderer.setBackend(new RecordingBackend());
+        Texture page = new Texture("page", 256, 128, null);
+        Texture region = new Texture("sprite.png", page, 64, 32, 32, 32);
+        float[] out = new float[InstanceData.INSTANCE_SIZE];
+
+        InstanceData.pack(out, 0, new Transform(), new Vector4f(1), SPRITE_COORDS, region, 1, true);
+
+        // u: 0.25 + u * 0.125, v: 0.25 + v * 0.25
+        int uv = InstanceData.UV_RECT_OFFSET;
+        assertEquals(0.28125f, out[uv], 1e-6f);
+        assertEquals(0.4375f, out[uv + 1], 1e-6f);
+        assertEquals(0.3125f, out[uv + 2], 1e-6f);
+        assertEquals(0.375f, out[uv + 3], 1e-6f);
+        int local = InstanceData.LOCAL_RECT_OFFSET;
+        assertArrayEquals(new float[]{0.25f, 0.75f, 0.5f, 0.5f},
+                new float[]{out[local], out[local + 1], out[local + 2], out[local + 3]});
+    }
+
+    @Test
+    void boundsCoverRotatedQuad() {
+        Transform t = new Transform(new Vector2f(10, 20), new Vector2f(4, 2), (float) (Math.PI / 2));
+        float[] b = new float[4];
+
+        InstanceData.bounds(t, b);
+
+        assertArrayEquals(new float[]{9, 18, 11, 22}, b, 1e-5f);
+    }
+}
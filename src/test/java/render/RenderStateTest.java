@@ -0,0 +1,108 @@
+package render;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+
+class RenderStateTest {
+
+    private RecordingBackend gl;
+    private RenderState state;
+
+    @BeforeEach
+    void setUp() {
+        gl = new RecordingBackend();
+        Renderer.setBackend(gl);
+        state = new RenderState();
+        state.beginFrame();
+    }
+
+    // Stav, který nastavuje každá batch: stejný program, textury a VAO
+    private void bindBatch() {
+        state.useProgram(7);
+        state.bindTexture(1, 10);
+        state.bindTexture(2, 11);
+        state.bindVertexArray(3);
+    }
+
+    @Test
+    void repeatedBatchStateIsSentOnce() {
+        for (int i = 0; i < 3; i++) bindBatch();
+
+        assertEquals(List.of("useProgram", "activeTexture", "bindTexture", "activeTexture", "bindTexture",
+                "bindVertexArray"), gl.getCallNames());
+        assertEquals(1, state.getProgramChanges());
+        assertEquals(2, state.getProgramSkipped());
+        assertEquals(2, state.getTextureChanges());
+        assertEquals(4, state.getTextureSkipped());
+        assertEquals(1, state.getVaoChanges());
+        assertEquals(2, state.getVaoSkipped());
+        assertEquals(4, state.getStateChanges());
+        assertEquals(8, state.getStateChangesSkipped());
+    }
+
+    @Test
+    void textureUnitIsSwitchedOnlyWhenBindIsNeeded() {
+        state.bindTexture(1, 10);
+        state.bindTexture(1, 12);
+        state.bindTexture(2, 12);
+        state.bindTexture(1, 12);
+
+        List<RecordingBackend.Call> calls = gl.getCalls();
+        assertEquals(List.of("activeTexture", "bindTexture", "bindTexture", "activeTexture", "bindTexture"),
+                gl.getCallNames());
+        assertEquals(GL_TEXTURE0 + 1, calls.get(0).args[0]);
+        assertEquals(GL_TEXTURE0 + 2, calls.get(3).args[0]);
+        assertEquals(3, state.getTextureChanges());
+        assertEquals(1, state.getTextureSkipped());
+    }
+
+    @Test
+    void beginFrameResetsCountersAndForgetsState() {
+        bindBatch();
+        bindBatch();
+        state.beginFrame();
+        gl.reset();
+
+        assertEquals(0, state.getStateChanges());
+        assertEquals(0, state.getStateChangesSkipped());
+
+        // stav se po invalidate pošle znovu (imgui ho mezi snímky mění)
+        bindBatch();
+        assertEquals(4, state.getStateChanges());
+        assertEquals(0, state.getStateChangesSkipped());
+        assertEquals(6, gl.getCalls().size());
+    }
+
+    @Test
+    void shaderCachesLocationsAndSkipsRepeatedIntArrays(@TempDir Path dir) throws IOException {
+        Path vertex = Files.writeString(dir.resolve("vertex.glsl"), "#version 330 core\n");
+        Path fragment = Files.writeString(dir.resolve("fragment.glsl"), "#version 330 core\n");
+        Shader shader = new Shader(vertex.toString(), fragment.toString());
+        shader.compile();
+        Renderer.getState().beginFrame();
+        gl.reset();
+
+        int[] slots = {0, 1, 2, 3, 4, 5, 6, 7};
+        for (int i = 0; i < 3; i++) {
+            shader.use();
+            shader.uploadIntArray("uTextures", slots);
+        }
+
+        assertEquals(1, Collections.frequency(gl.getCallNames(), "getUniformLocation"));
+        assertEquals(1, Collections.frequency(gl.getCallNames(), "uniform1iv"));
+        assertEquals(1, Collections.frequency(gl.getCallNames(), "useProgram"));
+        assertEquals(2, Renderer.getState().getUniformsSkipped());
+        // use() podruhé v prvním uploadIntArray + use() v dalších dvou cyklech
+        assertEquals(3, Renderer.getState().getProgramSkipped());
+    }
+}
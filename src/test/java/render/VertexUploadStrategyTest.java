@@ -0,0 +1,97 @@
+package render;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
+
+class VertexUploadStrategyTest {
+    private static final int CAPACITY = 256;
+
+    private RecordingBackend gl;
+    private float[] vertices;
+    private FloatBuffer staging;
+    private DirtyRanges dirty;
+
+    @BeforeEach
+    void setUp() {
+        gl = new RecordingBackend();
+        vertices = new float[CAPACITY];
+        staging = FloatBuffer.allocate(CAPACITY);
+        dirty = new DirtyRanges(4, 0);
+    }
+
+    private static void assertCall(RecordingBackend.Call call, String name, long... args) {
+        assertEquals(name, call.name, call.toString());
+        assertArrayEquals(args, call.args, call.toString());
+    }
+
+    @Test
+    void subDataUploadsOnlyDirtyRanges() {
+        VertexUploadStrategy strategy = new SubDataUploadStrategy();
+        strategy.allocate(gl, CAPACITY * Float.BYTES);
+        dirty.add(10, 20);
+        dirty.add(100, 124);
+
+        int bytes = strategy.upload(gl, vertices, 150, dirty, staging);
+
+        List<RecordingBackend.Call> calls = gl.getCalls();
+        assertEquals(3, calls.size(), calls.toString());
+        assertCall(calls.get(0), "bufferData", GL_ARRAY_BUFFER, CAPACITY * Float.BYTES, GL_DYNAMIC_DRAW);
+        assertCall(calls.get(1), "bufferSubData", GL_ARRAY_BUFFER, 10 * Float.BYTES, 10 * Float.BYTES);
+        assertCall(calls.get(2), "bufferSubData", GL_ARRAY_BUFFER, 100 * Float.BYTES, 24 * Float.BYTES);
+        assertEquals(34 * Float.BYTES, bytes);
+        assertEquals(bytes, gl.getBytesUploaded());
+    }
+
+    @Test
+    void subDataWithNothingDirtyMakesNoCalls() {
+        VertexUploadStrategy strategy = new SubDataUploadStrategy();
+
+        assertEquals(0, strategy.upload(gl, vertices, 150, dirty, staging));
+        assertTrue(gl.getCalls().isEmpty());
+    }
+
+    @Test
+    void orphaningReallocatesThenUploadsWholeUsedRange() {
+        VertexUploadStrategy strategy = new OrphaningUploadStrategy();
+        strategy.allocate(gl, CAPACITY * Float.BYTES);
+        dirty.add(40, 48);
+
+        int bytes = strategy.upload(gl, vertices, 150, dirty, staging);
+
+        List<RecordingBackend.Call> calls = gl.getCalls();
+        assertEquals(3, calls.size(), calls.toString());
+        assertCall(calls.get(0), "bufferData", GL_ARRAY_BUFFER, CAPACITY * Float.BYTES, GL_STREAM_DRAW);
+        // osiření: nové úložiště stejné velikosti, pak celá použitá část od nuly
+        assertCall(calls.get(1), "bufferData", GL_ARRAY_BUFFER, CAPACITY * Float.BYTES, GL_STREAM_DRAW);
+        assertCall(calls.get(2), "bufferSubData", GL_ARRAY_BUFFER, 0, 150 * Float.BYTES);
+        assertEquals(150 * Float.BYTES, bytes);
+    }
+
+    @Test
+    void orphaningSkipsEmptyBatch() {
+        VertexUploadStrategy strategy = new OrphaningUploadStrategy();
+        dirty.add(0, 8);
+
+        assertEquals(0, strategy.upload(gl, vertices, 0, dirty, staging));
+        assertTrue(gl.getCalls().isEmpty());
+    }
+
+    @Test
+    void stagingBufferCarriesDirtyVertexData() {
+        for (int i = 0; i < vertices.length; i++) vertices[i] = i;
+        dirty.add(30, 34);
+
+        new SubDataUploadStrategy().upload(gl, vertices, 150, dirty, staging);
+
+        assertEquals(4, staging.remaining());
+        for (int i = 0; i < 4; i++) assertEquals(30 + i, staging.get(i));
+    }
+}